@@ -0,0 +1,67 @@
+package com.testing.ex.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of encrypted single-product responses keyed by product id and
+ * version counter, the same identity the product ETag is built from. Every
+ * write increments the version, even several within the same second, so an
+ * entry is never served for a newer version and superseded entries simply age
+ * out. Metrics are published under the
+ * {@code cache.*} meters with tag {@code cache=products-ciphertext}.
+ */
+@Component
+public class ProductCiphertextCache {
+
+  private final boolean enabled;
+  private final Cache<Key, String> cache;
+
+  /**
+   * Creates the cache.
+   *
+   * @param enabled        whether ciphertexts are cached at all
+   * @param maxWeightBytes upper bound of the estimated size of all cached ciphertexts
+   * @param ttl            how long a ciphertext is kept after it was produced
+   * @param meterRegistry  registry receiving the cache metrics
+   */
+  public ProductCiphertextCache(
+      @Value("${products.ciphertext-cache.enabled:true}") boolean enabled,
+      @Value("${products.ciphertext-cache.max-weight-bytes:16777216}") long maxWeightBytes,
+      @Value("${products.ciphertext-cache.ttl:10m}") Duration ttl,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxWeightBytes)
+        .weigher((Key key, String ciphertext) -> 64 + 2 * ciphertext.length())
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "products-ciphertext");
+  }
+
+  /**
+   * Returns the cached ciphertext of the product version, encrypting and
+   * caching it on a miss.
+   *
+   * @param productId product identifier
+   * @param version   the product's current version counter
+   * @param encryptor produces the ciphertext on a miss
+   * @return the cached or freshly produced ciphertext
+   */
+  public String get(Long productId, long version, Supplier<String> encryptor) {
+    if (!enabled) {
+      return encryptor.get();
+    }
+    return cache.get(new Key(productId, version), key -> encryptor.get());
+  }
+
+  private record Key(Long productId, long version) {
+  }
+}
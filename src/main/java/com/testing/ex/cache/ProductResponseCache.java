@@ -0,0 +1,223 @@
+package com.testing.ex.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.testing.ex.domain.dto.response.CursorPageResponse;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, tenant-scoped in-process cache for product read responses.
+ *
+ * <p>Entries are keyed by tenant, a per-tenant generation and the query shape
+ * (page, sort, cursor, product id ...). Writes invalidate a tenant in O(1) by
+ * bumping its generation after the transaction commits; entries of older
+ * generations are never read again and are evicted by Caffeine's W-TinyLFU
+ * policy, which is bounded by the estimated size of the cached responses.
+ *
+ * <p>With stale-while-revalidate enabled, an entry older than the TTL is still
+ * served for up to the stale window while a single background reload
+ * replaces it. Hit, miss and eviction metrics are published under the
+ * {@code cache.*} meters with tag {@code cache=products}.
+ */
+@Slf4j
+@Component
+public class ProductResponseCache {
+
+  private static final int BASE_WEIGHT = 64;
+
+  private final boolean enabled;
+  private final boolean staleWhileRevalidate;
+  private final long ttlNanos;
+  private final Ticker ticker;
+  private final Cache<Key, Entry> cache;
+  private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+  private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+  private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Counter staleServed;
+
+  /**
+   * Creates the cache.
+   *
+   * @param enabled              whether responses are cached at all
+   * @param maxWeightBytes       upper bound of the estimated size of all cached responses
+   * @param ttl                  how long an entry is considered fresh
+   * @param staleWhileRevalidate whether expired entries are served while reloading
+   * @param staleTtl             how long past the TTL a stale entry may still be served
+   * @param meterRegistry        registry receiving the cache metrics
+   */
+  @Autowired
+  public ProductResponseCache(
+      @Value("${products.cache.enabled:true}") boolean enabled,
+      @Value("${products.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+      @Value("${products.cache.ttl:5m}") Duration ttl,
+      @Value("${products.cache.stale-while-revalidate:false}") boolean staleWhileRevalidate,
+      @Value("${products.cache.stale-ttl:1m}") Duration staleTtl,
+      MeterRegistry meterRegistry) {
+    this(enabled, maxWeightBytes, ttl, staleWhileRevalidate, staleTtl, meterRegistry,
+        Ticker.systemTicker());
+  }
+
+  ProductResponseCache(boolean enabled, long maxWeightBytes, Duration ttl,
+                       boolean staleWhileRevalidate, Duration staleTtl,
+                       MeterRegistry meterRegistry, Ticker ticker) {
+    this.enabled = enabled;
+    this.staleWhileRevalidate = staleWhileRevalidate;
+    this.ttlNanos = ttl.toNanos();
+    this.ticker = ticker;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxWeightBytes)
+        .weigher((Key key, Entry entry) -> entry.weight())
+        .expireAfterWrite(staleWhileRevalidate ? ttl.plus(staleTtl) : ttl)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+    this.staleServed = Counter.builder("products.cache.stale.served")
+        .description("Stale product responses served while a reload was in flight")
+        .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+  }
+
+  /**
+   * Returns the cached response for the tenant and query shape, loading and
+   * caching it on a miss.
+   *
+   * @param tenantId tenant identifier
+   * @param shape    description of the query (operation and parameters)
+   * @param loader   computes the response on a miss
+   * @param <T>      the response type
+   * @return the cached or freshly loaded response
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String tenantId, String shape, Supplier<T> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+    Key key = new Key(tenantId, generations.getOrDefault(tenantId, 0L), shape);
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      if (!staleWhileRevalidate || ticker.read() - entry.loadedAt() < ttlNanos) {
+        return (T) entry.value();
+      }
+      staleServed.increment();
+      refreshAsync(key, loader);
+      return (T) entry.value();
+    }
+    return load(key, loader);
+  }
+
+  /**
+   * Drops every cached response of the tenant. When called inside a
+   * transaction the invalidation happens after commit, so a concurrent read
+   * cannot repopulate the cache with data the transaction is replacing.
+   *
+   * @param tenantId tenant identifier
+   */
+  public void invalidate(String tenantId) {
+    if (!enabled) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          generations.merge(tenantId, 1L, Long::sum);
+        }
+      });
+    } else {
+      generations.merge(tenantId, 1L, Long::sum);
+    }
+  }
+
+  private <T> T load(Key key, Supplier<T> loader) {
+    T value = loader.get();
+    cache.put(key, new Entry(value, ticker.read(), weigh(value)));
+    return value;
+  }
+
+  private <T> void refreshAsync(Key key, Supplier<T> loader) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    refreshExecutor.execute(() -> {
+      try {
+        load(key, loader);
+      } catch (Exception e) {
+        log.warn("action=refreshProductCache tenantId={} shape={} error={}",
+            key.tenantId(), key.shape(), e.getMessage());
+      } finally {
+        refreshing.remove(key);
+      }
+    });
+  }
+
+  /**
+   * Rough estimate of the heap retained by a cached response, in bytes.
+   */
+  static int weigh(Object value) {
+    if (value instanceof ProductResponse product) {
+      int weight = BASE_WEIGHT + 48
+          + chars(product.name()) + chars(product.sku())
+          + chars(product.category()) + chars(product.description());
+      if (product.features() != null) {
+        for (Map.Entry<String, String> feature : product.features().entrySet()) {
+          weight += 32 + chars(feature.getKey()) + chars(feature.getValue());
+        }
+      }
+      return weight;
+    }
+    if (value instanceof Slice<?> slice) {
+      return BASE_WEIGHT + weighAll(slice.getContent());
+    }
+    if (value instanceof CursorPageResponse<?> page) {
+      return BASE_WEIGHT + chars(page.nextCursor()) + weighAll(page.content());
+    }
+    if (value instanceof Collection<?> items) {
+      return BASE_WEIGHT + weighAll(items);
+    }
+    return BASE_WEIGHT;
+  }
+
+  private static int weighAll(Collection<?> items) {
+    int weight = 0;
+    for (Object item : items) {
+      weight += weigh(item);
+    }
+    return weight;
+  }
+
+  private static int chars(String value) {
+    return value == null ? 0 : 40 + 2 * value.length();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refreshExecutor.shutdownNow();
+  }
+
+  private record Key(String tenantId, long generation, String shape) {
+  }
+
+  private record Entry(Object value, long loadedAt, int weight) {
+  }
+}
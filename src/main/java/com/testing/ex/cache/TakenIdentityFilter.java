@@ -0,0 +1,140 @@
+package com.testing.ex.cache;
+
+import com.testing.ex.domain.dto.projection.UserIdentity;
+import com.testing.ex.repos.UserRepository;
+import com.testing.ex.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+/**
+ * In-memory Bloom filter of the emails and usernames already taken, so that
+ * signup can tell that a value is definitely free without querying the
+ * {@code users} table.
+ *
+ * <p>The filter is loaded from the table in id pages once the application
+ * is ready and every successful signup adds to it. Until the load has
+ * finished every value is reported as possibly taken. Values are compared
+ * lower-cased and stripped, which only adds false positives under the
+ * case-insensitive collation of the unique indexes. Users created by other
+ * nodes are not seen, so the unique constraints remain the final check.
+ * Answers are counted by {@code auth.signup.identity.filter} with tag
+ * {@code result=free|maybe}.
+ */
+@Slf4j
+@Component
+public class TakenIdentityFilter {
+
+  private static final int LOAD_PAGE_SIZE = 10_000;
+
+  private final UserRepository userRepository;
+  private final BloomFilter filter;
+  private final Counter free;
+  private final Counter maybe;
+  private volatile boolean loaded;
+
+  /**
+   * Creates the filter.
+   *
+   * @param userRepository     repository the filter is loaded from
+   * @param expectedInsertions number of emails plus usernames the filter is sized for
+   * @param falsePositiveRate  share of free values still sent to the database
+   * @param meterRegistry      registry receiving the counters
+   */
+  public TakenIdentityFilter(
+      UserRepository userRepository,
+      @Value("${security.signup.identity-filter.expected-insertions:2000000}")
+      long expectedInsertions,
+      @Value("${security.signup.identity-filter.false-positive-rate:0.01}")
+      double falsePositiveRate,
+      MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.free = Counter.builder("auth.signup.identity.filter")
+        .description("Signup uniqueness checks answered by the identity filter")
+        .tag("result", "free")
+        .register(meterRegistry);
+    this.maybe = Counter.builder("auth.signup.identity.filter")
+        .description("Signup uniqueness checks answered by the identity filter")
+        .tag("result", "maybe")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Tells whether the email or the username may already be taken.
+   *
+   * @param email    email of the new account
+   * @param username username of the new account
+   * @return {@code false} if both are definitely free
+   */
+  public boolean mightBeTaken(String email, String username) {
+    boolean result = !loaded
+        || filter.mightContain(emailKey(email))
+        || filter.mightContain(usernameKey(username));
+    (result ? maybe : free).increment();
+    return result;
+  }
+
+  /**
+   * Records the identifiers of a newly created account.
+   *
+   * @param email    the account's email
+   * @param username the account's username
+   */
+  public void add(String email, String username) {
+    filter.put(emailKey(email));
+    filter.put(usernameKey(username));
+  }
+
+  /**
+   * Loads the identifiers of all existing users. Signups running meanwhile
+   * add to the same filter, so none are lost.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      long afterId = 0;
+      long users = 0;
+      List<UserIdentity> page;
+      do {
+        page = userRepository.findIdentitiesAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+        for (UserIdentity identity : page) {
+          add(identity.email(), identity.username());
+          afterId = identity.id();
+        }
+        users += page.size();
+      } while (page.size() == LOAD_PAGE_SIZE);
+      loaded = true;
+      sw.stop();
+      log.info("action=loadIdentityFilter users={} bits={} durationMs={}", users,
+          filter.bitSize(), sw.getTotalTimeMillis());
+    } catch (Exception e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.error("action=loadIdentityFilter error={}", e.getMessage(), e);
+    }
+  }
+
+  private static String emailKey(String email) {
+    return "e:" + normalize(email);
+  }
+
+  private static String usernameKey(String username) {
+    return "u:" + normalize(username);
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+  }
+}
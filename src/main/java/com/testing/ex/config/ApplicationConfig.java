@@ -1,14 +1,20 @@
 package com.testing.ex.config;
 
+import com.testing.ex.security.BoundedPasswordEncoder;
+import com.testing.ex.security.CalibratedBcryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Configuration class for application security settings.
@@ -35,23 +41,67 @@ public class ApplicationConfig {
   /**
    * Configures the AuthenticationProvider bean.
    *
+   * @param passwordEncoder the password encoder
    * @return the authentication provider
    */
   @Bean
-  public AuthenticationProvider authenticationProvider() {
+  public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-    provider.setPasswordEncoder(bcryptpasswordencoder());
+    provider.setPasswordEncoder(passwordEncoder);
     provider.setUserDetailsService(userDetailsService);
     return provider;
   }
 
   /**
-   * Configures the BCryptPasswordEncoder bean.
+   * Configures the BCrypt encoder, calibrated to the target latency unless a
+   * fixed cost is configured.
    *
-   * @return the bcrypt password encoder
+   * @param cost            fixed BCrypt cost, 0 to calibrate at startup
+   * @param targetLatency   hashing time the calibration aims for
+   * @param minCost         lowest cost the calibration may pick
+   * @param maxCost         highest cost the calibration may pick
+   * @param rehashTolerance cost difference of stored hashes left alone on login
+   * @return the BCrypt encoder
    */
   @Bean
-  public BCryptPasswordEncoder bcryptpasswordencoder() {
-    return new BCryptPasswordEncoder(12);
+  public CalibratedBcryptPasswordEncoder bcryptPasswordEncoder(
+      @Value("${security.password-hashing.cost:0}") int cost,
+      @Value("${security.password-hashing.target-latency:250ms}") Duration targetLatency,
+      @Value("${security.password-hashing.min-cost:10}") int minCost,
+      @Value("${security.password-hashing.max-cost:14}") int maxCost,
+      @Value("${security.password-hashing.rehash-tolerance:1}") int rehashTolerance) {
+    return cost > 0
+        ? new CalibratedBcryptPasswordEncoder(cost, rehashTolerance)
+        : CalibratedBcryptPasswordEncoder.calibrated(targetLatency, minCost, maxCost,
+            rehashTolerance);
+  }
+
+  /**
+   * Configures the password encoder: BCrypt on a dedicated, bounded pool.
+   * It is the primary encoder, so nothing hashes on the caller's thread by
+   * injecting the BCrypt encoder directly.
+   *
+   * @param bcrypt        the BCrypt encoder doing the work
+   * @param threads       hashing threads, 0 for half the available processors
+   * @param queueCapacity calls that may wait for a hashing thread
+   * @param maxWait       how long a caller waits for its result
+   * @param retryAfter    Retry-After advertised when the pool is saturated
+   * @param meterRegistry registry receiving the pool metrics
+   * @return the password encoder
+   */
+  @Bean
+  @Primary
+  public BoundedPasswordEncoder passwordEncoder(
+      CalibratedBcryptPasswordEncoder bcrypt,
+      @Value("${security.password-hashing.threads:0}") int threads,
+      @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${security.password-hashing.max-wait:5s}") Duration maxWait,
+      @Value("${security.password-hashing.retry-after:2s}") Duration retryAfter,
+      MeterRegistry meterRegistry) {
+    int poolSize = threads > 0
+        ? threads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, maxWait, retryAfter,
+        meterRegistry);
   }
 }
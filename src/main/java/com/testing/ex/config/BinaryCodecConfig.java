@@ -0,0 +1,39 @@
+package com.testing.ex.config;
+
+import com.testing.ex.utils.BinaryCodecs;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers the CBOR and Smile message converters, so every endpoint that
+ * returns or accepts a DTO can be negotiated with {@code Accept} and
+ * {@code Content-Type}. They take the place of Spring's default binary
+ * converters, behind the JSON converter, which keeps JSON the default.
+ */
+@Configuration
+public class BinaryCodecConfig {
+
+  /**
+   * Configures the CBOR converter.
+   *
+   * @param codecs the binary codecs
+   * @return the CBOR message converter
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(BinaryCodecs codecs) {
+    return new MappingJackson2CborHttpMessageConverter(codecs.cborMapper());
+  }
+
+  /**
+   * Configures the Smile converter.
+   *
+   * @param codecs the binary codecs
+   * @return the Smile message converter
+   */
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(BinaryCodecs codecs) {
+    return new MappingJackson2SmileHttpMessageConverter(codecs.smileMapper());
+  }
+}
@@ -0,0 +1,34 @@
+package com.testing.ex.config;
+
+import com.testing.ex.domain.FeatureStorageMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the configured {@link FeatureStorageMode} ({@code products.features.storage})
+ * as the read and write decisions the persistence code needs.
+ */
+@Component
+public class ProductFeatureStorage {
+
+  private final FeatureStorageMode mode;
+
+  public ProductFeatureStorage(
+      @Value("${products.features.storage:DUAL}") FeatureStorageMode mode) {
+    this.mode = mode;
+  }
+
+  /**
+   * Whether features are written to and read from the product_features table.
+   */
+  public boolean usesTable() {
+    return mode != FeatureStorageMode.JSON;
+  }
+
+  /**
+   * Whether features are written to and read from the products.features_json column.
+   */
+  public boolean usesJson() {
+    return mode != FeatureStorageMode.TABLE;
+  }
+}
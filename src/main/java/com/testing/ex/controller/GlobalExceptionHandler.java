@@ -1,12 +1,19 @@
 package com.testing.ex.controller;
 
 import com.testing.ex.domain.dto.response.ErrorDto;
+import com.testing.ex.exception.BadRequestException;
+import com.testing.ex.exception.ConflictException;
+import com.testing.ex.exception.PayloadTooLargeException;
+import com.testing.ex.exception.ServiceOverloadedException;
 import jakarta.validation.ConstraintViolationException;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -86,6 +93,119 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Handles request parameters that are well-formed but cannot be honoured.
+   *
+   * @param ex the BadRequestException
+   * @return ResponseEntity with ErrorDto and HTTP 400 status
+   */
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<ErrorDto> handleBadRequest(BadRequestException ex) {
+    log.info("Bad request: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.BAD_REQUEST.value())
+        .message(ex.getMessage())
+        .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles request bodies larger than the endpoint accepts.
+   *
+   * @param ex the PayloadTooLargeException
+   * @return ResponseEntity with ErrorDto and HTTP 413 status
+   */
+  @ExceptionHandler(PayloadTooLargeException.class)
+  public ResponseEntity<ErrorDto> handlePayloadTooLarge(PayloadTooLargeException ex) {
+    log.info("Payload too large: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.PAYLOAD_TOO_LARGE.value())
+        .message(ex.getMessage())
+        .build();
+
+    return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  /**
+   * Handles rejected credentials, such as a wrong password or an unusable
+   * refresh token.
+   *
+   * @param ex the BadCredentialsException
+   * @return ResponseEntity with ErrorDto and HTTP 401 status
+   */
+  @ExceptionHandler(BadCredentialsException.class)
+  public ResponseEntity<ErrorDto> handleBadCredentials(BadCredentialsException ex) {
+    log.info("Bad credentials: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.UNAUTHORIZED.value())
+        .message(ex.getMessage())
+        .build();
+
+    return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+  }
+
+  /**
+   * Handles requests that would duplicate a unique value.
+   *
+   * @param ex the ConflictException
+   * @return ResponseEntity with ErrorDto and HTTP 409 status
+   */
+  @ExceptionHandler(ConflictException.class)
+  public ResponseEntity<ErrorDto> handleConflict(ConflictException ex) {
+    log.info("Conflict: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.CONFLICT.value())
+        .message(ex.getMessage())
+        .build();
+
+    return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Handles writes that lost a race against a concurrent write of the same
+   * versioned entity.
+   *
+   * @param ex the OptimisticLockingFailureException
+   * @return ResponseEntity with ErrorDto and HTTP 409 status
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorDto> handleOptimisticLock(OptimisticLockingFailureException ex) {
+    log.info("Concurrent modification: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.CONFLICT.value())
+        .message("The resource was modified concurrently; reload it and retry")
+        .build();
+
+    return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Handles requests turned away because a bounded resource is saturated.
+   *
+   * @param ex the ServiceOverloadedException
+   * @return ResponseEntity with ErrorDto, a Retry-After header and HTTP 503 status
+   */
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<ErrorDto> handleServiceOverloaded(ServiceOverloadedException ex) {
+    log.warn("Service overloaded: {}", ex.getMessage());
+
+    ErrorDto error = ErrorDto.builder()
+        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+        .message(ex.getMessage())
+        .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER,
+            String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+        .body(error);
+  }
+
   /**
    * Handles all uncaught exceptions.
    *
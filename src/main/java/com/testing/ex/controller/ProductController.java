@@ -1,24 +1,64 @@
 package com.testing.ex.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.testing.ex.cache.ProductCiphertextCache;
+import com.testing.ex.domain.ProductSortKey;
+import com.testing.ex.domain.dto.request.BulkDeleteRequest;
+import com.testing.ex.domain.dto.request.BulkPriceChangeRequest;
 import com.testing.ex.domain.dto.request.CreateProductRequest;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
 import com.testing.ex.domain.dto.request.UpdateProductRequest;
+import com.testing.ex.domain.dto.response.BulkOperationResponse;
+import com.testing.ex.domain.dto.response.CursorPageResponse;
+import com.testing.ex.domain.dto.response.PageResponse;
+import com.testing.ex.domain.dto.response.ProductBatchResponse;
+import com.testing.ex.domain.dto.response.ProductCountResponse;
+import com.testing.ex.domain.dto.response.ProductFacetsResponse;
 import com.testing.ex.domain.dto.response.ProductResponse;
-import com.testing.ex.domain.entity.Product;
+import com.testing.ex.exception.BadRequestException;
+import com.testing.ex.exception.PayloadTooLargeException;
 import com.testing.ex.service.ProductService;
+import com.testing.ex.utils.BinaryCodecs;
+import com.testing.ex.utils.ETags;
 import com.testing.ex.utils.EncryptionUtils;
+import com.testing.ex.utils.LimitedInputStream;
+import com.testing.ex.utils.ProductCsv;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -27,6 +67,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
@@ -44,33 +85,319 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Tag(name = "Products", description = "Operations for managing products (tenant-scoped)")
 public class ProductController {
 
+  private static final String FEATURE_PARAM_PREFIX = "feature.";
+
   private final ProductService productService;
   private final EncryptionUtils encryptionUtils;
+  private final ProductCiphertextCache productCiphertextCache;
+  private final ObjectMapper objectMapper;
+  private final BinaryCodecs binaryCodecs;
+
+  @Value("${products.paging.max-size:100}")
+  private int maxPageSize;
+
+  @Value("${products.decrypt.max-bytes:1048576}")
+  private long decryptMaxBytes;
+
+  @Value("${products.decrypt.max-stream-bytes:268435456}")
+  private long decryptMaxStreamBytes;
 
   /**
    * Get all products for the current authenticated user (tenant).
    *
-   * @param userId the authenticated user's id injected as a request attribute
-   * @return list of product response DTOs for the tenant
+   * <p>Parameters of the form {@code feature.<key>=<value>} restrict the
+   * listing to products having all of those feature values.</p>
+   *
+   * <p>The response carries a strong ETag derived from the tenant's product
+   * count and latest modification. A matching If-None-Match is answered with
+   * 304 Not Modified from that metadata alone, without loading the page.</p>
+   *
+   * @param userId     the authenticated user's id injected as a request attribute
+   * @param params     all query parameters, scanned for feature filters
+   * @param webRequest the current request, used for conditional GET handling
+   * @return page of product response DTOs for the tenant
    */
   @Operation(summary = "List products for authenticated user", description = "Returns a paginated"
-      + " list of products for the current user/tenant")
+      + " list of products for the current user/tenant, optionally filtered by"
+      + " feature.<key>=<value> parameters")
   @GetMapping
-  public ResponseEntity<Page<ProductResponse>> getAll(
+  public ResponseEntity<PageResponse<ProductResponse>> getAll(
+      @RequestAttribute("userId") String userId,
+      @RequestParam(defaultValue = "0") Integer page,
+      @RequestParam(defaultValue = "20") Integer size,
+      @RequestParam(defaultValue = "createdAt") String sortBy,
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam Map<String, String> params,
+      WebRequest webRequest
+  ) {
+    Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+    Map<String, String> features = new TreeMap<>();
+    params.forEach((name, value) -> {
+      if (name.startsWith(FEATURE_PARAM_PREFIX) && name.length() > FEATURE_PARAM_PREFIX.length()) {
+        features.put(name.substring(FEATURE_PARAM_PREFIX.length()), value);
+      }
+    });
+
+    // Read the version before the content: a concurrent write then yields a stale tag, never a
+    // stale body for a fresh tag.
+    String etag = ETags.forListing(productService.getListingVersion(userId),
+        "page|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort()
+            + "|" + features + "|" + representation(webRequest));
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    Page<ProductResponse> products =
+        productService.getAllByUserIdAndFeatures(userId, features, pageable);
+
+    return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+        .body(PageResponse.of(products));
+  }
+
+  /**
+   * Get a slice of products for the current authenticated user (tenant)
+   * without the total count, which saves a COUNT query over the tenant.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @return slice of product response DTOs for the tenant, without totals
+   */
+  @Operation(summary = "List products without totals", description = "Returns a slice of products"
+      + " for the current user/tenant; only reports whether a next slice exists")
+  @GetMapping(path = "/slice")
+  public ResponseEntity<PageResponse<ProductResponse>> getSlice(
       @RequestAttribute("userId") String userId,
       @RequestParam(defaultValue = "0") Integer page,
       @RequestParam(defaultValue = "20") Integer size,
       @RequestParam(defaultValue = "createdAt") String sortBy,
       @RequestParam(defaultValue = "DESC") String sortDir
   ) {
-    Sort sort = Sort.by(Sort.Direction.valueOf(sortDir.toUpperCase()), sortBy);
-    Pageable pageable = PageRequest.of(page, size, sort);
+    Pageable pageable = pageRequest(page, size, sortBy, sortDir);
+
+    Slice<ProductResponse> products = productService.getSliceByUserId(userId, pageable);
+
+    return ResponseEntity.ok(PageResponse.of(products));
+  }
+
+  /**
+   * Get products for the current authenticated user (tenant) restricted by
+   * category, price range and creation time range. Sorting is limited to
+   * properties an index keeps in order for the given filter.
+   *
+   * @param userId      the authenticated user's id injected as a request attribute
+   * @param category    category products must belong to
+   * @param minPrice    lowest price, inclusive
+   * @param maxPrice    highest price, inclusive
+   * @param createdFrom earliest creation time, inclusive
+   * @param createdTo   latest creation time, inclusive
+   * @return page of product response DTOs for the tenant
+   */
+  @Operation(summary = "Filter products", description = "Returns a paginated list of products"
+      + " for the current user/tenant filtered by category, price range and creation time range;"
+      + " only index-backed sort properties are accepted")
+  @GetMapping(path = "/query")
+  public ResponseEntity<PageResponse<ProductResponse>> query(
+      @RequestAttribute("userId") String userId,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) BigDecimal minPrice,
+      @RequestParam(required = false) BigDecimal maxPrice,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      LocalDateTime createdFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      LocalDateTime createdTo,
+      @RequestParam(defaultValue = "0") Integer page,
+      @RequestParam(defaultValue = "20") Integer size,
+      @RequestParam(defaultValue = "createdAt") String sortBy,
+      @RequestParam(defaultValue = "DESC") String sortDir
+  ) {
+    ProductListingFilter filter =
+        new ProductListingFilter(category, minPrice, maxPrice, createdFrom, createdTo);
+
+    Page<ProductResponse> products = productService.getAllByUserIdAndFilter(userId, filter,
+        pageRequest(page, size, sortBy, sortDir));
+
+    return ResponseEntity.ok(PageResponse.of(products));
+  }
+
+  /**
+   * Get the total number of products of the current authenticated user (tenant).
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @return the product total
+   */
+  @Operation(summary = "Count products", description = "Returns the number of products of the"
+      + " current user/tenant from a maintained counter")
+  @GetMapping(path = "/count")
+  public ResponseEntity<ProductCountResponse> count(
+      @RequestAttribute("userId") String userId
+  ) {
+    return ResponseEntity.ok(new ProductCountResponse(productService.countByUserId(userId)));
+  }
+
+  /**
+   * Get the product counts of the current authenticated user (tenant) per
+   * category and price band.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @return the facet counts
+   */
+  @Operation(summary = "Get product facets", description = "Returns the number of products per"
+      + " category and price band from a maintained summary table")
+  @GetMapping(path = "/facets")
+  public ResponseEntity<ProductFacetsResponse> facets(
+      @RequestAttribute("userId") String userId
+  ) {
+    return ResponseEntity.ok(productService.getFacetsByUserId(userId));
+  }
+
+  /**
+   * Recompute the facet counts of the current authenticated user (tenant)
+   * from the products table.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @return the recomputed facet counts
+   */
+  @Operation(summary = "Rebuild product facets", description = "Recomputes the facet counts of"
+      + " the current user/tenant from the products table to repair drift")
+  @PostMapping(path = "/facets/rebuild")
+  public ResponseEntity<ProductFacetsResponse> rebuildFacets(
+      @RequestAttribute("userId") String userId
+  ) {
+    return ResponseEntity.ok(productService.rebuildFacets(userId));
+  }
 
-    Page<ProductResponse> products = productService.getAllByUserId(userId, pageable);
+  /**
+   * Builds the page request, accepting only sort properties that an index
+   * keeps in order for the tenant and pages no larger than
+   * {@code products.paging.max-size}.
+   */
+  private Pageable pageRequest(Integer page, Integer size, String sortBy, String sortDir) {
+    if (page < 0) {
+      throw new BadRequestException("Page number must not be negative");
+    }
+    checkPageSize(size);
+    ProductSortKey key = ProductSortKey.of(sortBy)
+        .orElseThrow(() -> new BadRequestException("Unsupported sort property: " + sortBy));
+    Sort sort = Sort.by(Sort.Direction.valueOf(sortDir.toUpperCase()), key.property());
+    return PageRequest.of(page, size, sort);
+  }
+
+  /**
+   * Get products for the current authenticated user (tenant) using keyset
+   * pagination. Unlike {@link #getAll} the response time does not grow with
+   * the page depth, because no rows are skipped and no count is issued.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @param cursor continuation token returned by the previous call, omit for the first page
+   * @param size   maximum number of products to return
+   * @return products newest first with the token for the next page
+   */
+  @Operation(summary = "Scroll products for authenticated user", description = "Returns products"
+      + " newest first using an opaque continuation token instead of page numbers")
+  @GetMapping(path = "/scroll")
+  public ResponseEntity<CursorPageResponse<ProductResponse>> scroll(
+      @RequestAttribute("userId") String userId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") Integer size
+  ) {
+    checkPageSize(size);
+    CursorPageResponse<ProductResponse> products =
+        productService.getAllByUserIdAfter(userId, cursor, size);
 
     return ResponseEntity.ok(products);
   }
 
+  /**
+   * Search the products of the current authenticated user (tenant) by name
+   * and description. Every word of the query must match as a word prefix;
+   * results are ordered by relevance.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @param q      free-text query
+   * @param limit  maximum number of products to return (1-100)
+   * @return matching products, most relevant first
+   */
+  @Operation(summary = "Search products", description = "Full-text search over name and"
+      + " description of the current user's products, ranked by relevance")
+  @GetMapping(path = "/search")
+  public ResponseEntity<List<ProductResponse>> search(
+      @RequestAttribute("userId") String userId,
+      @RequestParam String q,
+      @RequestParam(defaultValue = "20") Integer limit
+  ) {
+    return ResponseEntity.ok(productService.searchByUserId(userId, q, limit));
+  }
+
+  /**
+   * Export the whole catalog of the current authenticated user (tenant) as
+   * NDJSON (one product per line) or CSV. Products are written to the
+   * response as they are read from the database, so memory use stays flat
+   * regardless of the catalog size.
+   *
+   * <p>With {@code encrypted=true} the same bytes are piped through
+   * {@link EncryptionUtils#encryptingStream(OutputStream)} on their way to
+   * the client, producing Base64 text in the segmented streaming format that
+   * {@code POST /decrypt/stream} reverses.</p>
+   *
+   * @param userId    the authenticated user's id injected as a request attribute
+   * @param format    {@code ndjson} or {@code csv}
+   * @param encrypted whether to encrypt the export
+   * @param response  the servlet response the products are streamed to
+   * @throws IOException if writing to the client fails
+   */
+  @Operation(summary = "Export products", description = "Streams every product of the current"
+      + " user/tenant as NDJSON or CSV, optionally encrypted")
+  @GetMapping(path = "/export")
+  public void export(
+      @RequestAttribute("userId") String userId,
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(defaultValue = "false") boolean encrypted,
+      HttpServletResponse response
+  ) throws IOException {
+    boolean csv = switch (format.toLowerCase()) {
+      case "ndjson" -> false;
+      case "csv" -> true;
+      default -> throw new BadRequestException("Unsupported export format: " + format);
+    };
+
+    String extension = (csv ? "csv" : "ndjson") + (encrypted ? ".enc" : "");
+    if (encrypted) {
+      response.setContentType("text/plain;charset=US-ASCII");
+    } else {
+      response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+    }
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"products." + extension + "\"");
+    OutputStream out = encrypted
+        ? encryptionUtils.encryptingStream(response.getOutputStream())
+        : response.getOutputStream();
+    ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    try {
+      if (csv) {
+        out.write(ProductCsv.HEADER.getBytes(StandardCharsets.UTF_8));
+      }
+      productService.exportByUserId(userId, product -> {
+        try {
+          if (csv) {
+            out.write(ProductCsv.line(product).getBytes(StandardCharsets.UTF_8));
+          } else {
+            writer.writeValue(out, product);
+            out.write('\n');
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    if (encrypted) {
+      out.close();
+    } else {
+      out.flush();
+    }
+  }
+
   /**
    * Create a new product for the authenticated user (tenant).
    *
@@ -95,6 +422,63 @@ public class ProductController {
     return ResponseEntity.created(location).body(location);
   }
 
+  /**
+   * Create many products for the authenticated user (tenant) in one call.
+   * Each item is validated on its own and reported in the response, so one
+   * bad item does not fail the whole batch.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @param dtos   create request payloads
+   * @return per-item results with the created ids
+   */
+  @Operation(summary = "Create products in bulk", description = "Create up to 5000 products for"
+      + " the authenticated user in one transaction and report the outcome of each item")
+  @PostMapping(path = "/batch")
+  public ResponseEntity<ProductBatchResponse> createBatch(
+      @RequestAttribute("userId") String userId,
+      @RequestBody List<CreateProductRequest> dtos
+  ) {
+    ProductBatchResponse result = productService.createProducts(userId, dtos);
+    return ResponseEntity.ok(result);
+  }
+
+  /**
+   * Change the price of every product of a category of the authenticated
+   * user (tenant) by a percentage.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @param dto    category and percentage
+   * @return number of repriced products
+   */
+  @Operation(summary = "Reprice a category", description = "Change the price of every product of"
+      + " a category by a percentage with set-based updates")
+  @PatchMapping(path = "/bulk/price")
+  public ResponseEntity<BulkOperationResponse> changePrice(
+      @RequestAttribute("userId") String userId,
+      @Validated @RequestBody BulkPriceChangeRequest dto
+  ) {
+    long affected = productService.changePriceByCategory(userId, dto.category(), dto.percent());
+    return ResponseEntity.ok(new BulkOperationResponse(affected));
+  }
+
+  /**
+   * Delete the products of the authenticated user (tenant) with the given SKUs.
+   *
+   * @param userId the authenticated user's id injected as a request attribute
+   * @param dto    SKUs to delete
+   * @return number of deleted products
+   */
+  @Operation(summary = "Delete products by SKU", description = "Delete up to 10000 products by"
+      + " SKU with set-based deletes; unknown SKUs are ignored")
+  @PostMapping(path = "/bulk/delete")
+  public ResponseEntity<BulkOperationResponse> deleteBySkus(
+      @RequestAttribute("userId") String userId,
+      @Validated @RequestBody BulkDeleteRequest dto
+  ) {
+    long affected = productService.deleteBySkus(userId, dto.skus());
+    return ResponseEntity.ok(new BulkOperationResponse(affected));
+  }
+
   /**
    * Update an existing product belonging to the authenticated user.
    *
@@ -136,57 +520,167 @@ public class ProductController {
   /**
    * Get a product by id for the authenticated user (tenant).
    *
-   * @param userId    the authenticated user's id injected as a request attribute
-   * @param productId the id of the product to retrieve
+   * <p>The ETag is derived from the product id and its version, so a
+   * matching If-None-Match is answered with 304 Not Modified without loading,
+   * serializing or encrypting the product. Other requests for the same
+   * version are served the cached ciphertext.</p>
+   *
+   * <p>With {@code Accept: application/cbor} or
+   * {@code application/x-jackson-smile} the ciphertext is returned as a binary
+   * byte string of that encoding instead of Base64 text.</p>
+   *
+   * @param userId     the authenticated user's id injected as a request attribute
+   * @param productId  the id of the product to retrieve
+   * @param webRequest the current request, used for conditional GET handling
    * @return the product as an encrypted JSON string
+   * @throws IOException if the binary encoding fails
    */
   @Operation(summary = "Get product by id", description = "Get single product by id for the "
       + "authenticated user (response is encrypted)")
   @GetMapping(path = "/{id}")
-  public ResponseEntity<String> getById(
+  public ResponseEntity<?> getById(
       @RequestAttribute("userId") String userId,
-      @PathVariable("id") Long productId
-  ) {
-    Product product = productService.getProductEntityByIdAndUserId(productId, userId);
-    ProductResponse responseDto = getProductResponse(product);
-    try {
-      String encryptedResponse = encryptionUtils.encryptJson(responseDto);
-      return ResponseEntity.ok(encryptedResponse);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+      @PathVariable("id") Long productId,
+      WebRequest webRequest
+  ) throws IOException {
+    Optional<MediaType> binaryType =
+        BinaryCodecs.requestedBinaryType(webRequest.getHeader(HttpHeaders.ACCEPT));
+    long version = productService.getProductVersion(productId, userId);
+    String etag = ETags.forProduct(productId, version, representation(webRequest));
+    if (webRequest.checkNotModified(etag)) {
+      return null;
     }
-  }
 
-  private static ProductResponse getProductResponse(Product product) {
-    return new ProductResponse(
-        product.getId(),
-        product.getName(),
-        product.getSku(),
-        product.getCategory(),
-        product.getPrice(),
-        product.getDescription(),
-        product.getFeatures()
-    );
+    String encryptedResponse = productCiphertextCache.get(productId, version, () ->
+        encryptionUtils.encryptJson(productService.getProductByIdAndUserId(productId, userId)));
+    if (binaryType.isPresent()) {
+      byte[] sealed = Base64.getDecoder().decode(encryptedResponse);
+      return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+          .contentType(binaryType.get())
+          .body(binaryCodecs.mapperFor(binaryType.get()).orElseThrow().writeValueAsBytes(sealed));
+    }
+    return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(encryptedResponse);
   }
 
   /**
    * Decrypt an encrypted product JSON string.
    *
-   * @param encryptedMessage the encrypted JSON string representing a product
+   * <p>The body is read directly from the request and rejected with 413 once
+   * it exceeds {@code products.decrypt.max-bytes}, before it is buffered. It
+   * is either the Base64 text returned by {@code GET /{id}} or, with a CBOR or
+   * Smile {@code Content-Type}, the binary byte string of that encoding. The
+   * decrypted product is written in the encoding negotiated by Accept.</p>
+   *
+   * @param request the request whose body is the encrypted message
    * @return the decrypted product as a response DTO
+   * @throws IOException if reading the request fails
+   * @throws BadRequestException if the message is malformed or was tampered with
    */
   @Operation(summary = "Decrypt product JSON", description = "Decrypt an encrypted product JSON "
       + "string and return DTO")
   @PostMapping(path = "/decrypt")
   public ResponseEntity<ProductResponse> decryptMessage(
-      @RequestBody String encryptedMessage
-  ) {
+      HttpServletRequest request
+  ) throws IOException {
+    byte[] body = readLimited(request, decryptMaxBytes);
+    Optional<ObjectMapper> binaryMapper = binaryCodecs.mapperFor(contentType(request));
+    ProductResponse responseDto;
+    if (binaryMapper.isPresent()) {
+      byte[] sealed;
+      try {
+        sealed = binaryMapper.get().readValue(body, byte[].class);
+      } catch (IOException e) {
+        throw new BadRequestException("Invalid encrypted message", e);
+      }
+      responseDto = encryptionUtils.decryptJson(sealed, ProductResponse.class);
+    } else {
+      responseDto = encryptionUtils.decryptJson(new String(body, StandardCharsets.US_ASCII),
+          ProductResponse.class);
+    }
+    return ResponseEntity.ok(responseDto);
+  }
+
+  /**
+   * Decrypt a payload in the streaming format, such as an encrypted export,
+   * writing the plaintext to the response as each segment is authenticated.
+   * Memory use is bounded by one segment regardless of the payload size;
+   * bodies over {@code products.decrypt.max-stream-bytes} are rejected with
+   * 413.
+   *
+   * <p>Errors detected before the first segment is written (bad header,
+   * tampered first segment, oversized Content-Length) produce a normal error
+   * response. A later segment failing authentication aborts the response, so
+   * the client sees a truncated body rather than unverified plaintext.</p>
+   *
+   * @param request  the request whose body is the Base64 ciphertext
+   * @param response the servlet response the plaintext is streamed to
+   * @throws IOException if reading or writing fails after the response started
+   */
+  @Operation(summary = "Decrypt stream", description = "Decrypt a payload produced by an "
+      + "encrypted export and stream back the plaintext")
+  @PostMapping(path = "/decrypt/stream")
+  public void decryptStream(
+      HttpServletRequest request,
+      HttpServletResponse response
+  ) throws IOException {
+    checkContentLength(request, decryptMaxStreamBytes);
+    InputStream in = new LimitedInputStream(request.getInputStream(), decryptMaxStreamBytes);
+    InputStream plain;
+    byte[] first = new byte[8192];
+    int n;
     try {
-      ProductResponse responseDto =
-          encryptionUtils.decryptJson(encryptedMessage, ProductResponse.class);
-      return ResponseEntity.ok(responseDto);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+      plain = encryptionUtils.decryptingStream(in);
+      n = plain.read(first);
+    } catch (IOException e) {
+      throw new BadRequestException("Invalid encrypted message", e);
+    }
+    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    OutputStream out = response.getOutputStream();
+    if (n > 0) {
+      out.write(first, 0, n);
+      plain.transferTo(out);
+    }
+    out.flush();
+  }
+
+  /**
+   * Rejects page sizes outside 1..{@code products.paging.max-size}, so a
+   * single request cannot load a whole tenant into memory.
+   */
+  private void checkPageSize(Integer size) {
+    if (size < 1) {
+      throw new BadRequestException("Page size must be at least 1");
+    }
+    if (size > maxPageSize) {
+      throw new BadRequestException("Page size must not exceed " + maxPageSize + "; use"
+          + " /api/products/scroll to page through more products or /api/products/export to"
+          + " stream the whole catalog");
+    }
+  }
+
+  private static String representation(WebRequest webRequest) {
+    return BinaryCodecs.requestedBinaryType(webRequest.getHeader(HttpHeaders.ACCEPT))
+        .map(MediaType::toString)
+        .orElse("json");
+  }
+
+  private static MediaType contentType(HttpServletRequest request) {
+    try {
+      return request.getContentType() == null ? null : MediaType.parseMediaType(
+          request.getContentType());
+    } catch (InvalidMediaTypeException e) {
+      return null;
+    }
+  }
+
+  private static byte[] readLimited(HttpServletRequest request, long limit) throws IOException {
+    checkContentLength(request, limit);
+    return new LimitedInputStream(request.getInputStream(), limit).readAllBytes();
+  }
+
+  private static void checkContentLength(HttpServletRequest request, long limit) {
+    if (request.getContentLengthLong() > limit) {
+      throw new PayloadTooLargeException("Request body exceeds " + limit + " bytes");
     }
   }
 
@@ -1,6 +1,7 @@
 package com.testing.ex.controller;
 
 import com.testing.ex.domain.dto.request.LoginUserDto;
+import com.testing.ex.domain.dto.request.RefreshTokenRequest;
 import com.testing.ex.domain.dto.request.RegisterUserDto;
 import com.testing.ex.domain.dto.request.VerifyUserDto;
 import com.testing.ex.domain.dto.response.LoginResponse;
@@ -8,6 +9,7 @@ import com.testing.ex.domain.entity.User;
 import com.testing.ex.security.TestingUserDetails;
 import com.testing.ex.service.AuthenticationService;
 import com.testing.ex.service.JwtService;
+import com.testing.ex.service.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -39,6 +41,7 @@ public class UserController {
 
   private final AuthenticationService authenticationService;
   private final JwtService jwtService;
+  private final RefreshTokenService refreshTokenService;
 
   /**
    * Register a new user account.
@@ -60,20 +63,34 @@ public class UserController {
    * Authenticate a user and return a JWT token on success.
    *
    * @param request login credentials
-   * @return token and expiration information wrapped in {@link LoginResponse}
+   * @return token, expiration and refresh token wrapped in {@link LoginResponse}
    */
   @Operation(summary = "Authenticate user (login)", description = "Authenticates credentials and "
-      + "returns a JWT token and expiration time.")
+      + "returns a JWT token, its expiration time and a refresh token.")
   @PostMapping(path = "/login", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<LoginResponse> authenticate(@Valid @RequestBody LoginUserDto request) {
     UserDetails authenticatedUser = authenticationService.authenticate(request);
     LoginResponse loginResponse = LoginResponse.builder()
         .token(jwtService.generateToken(authenticatedUser))
         .expiration(jwtService.getExpirationTime())
+        .refreshToken(refreshTokenService.issue(((TestingUserDetails) authenticatedUser).getUser()))
         .build();
     return ResponseEntity.ok(loginResponse);
   }
 
+  /**
+   * Exchange a refresh token for a new JWT token and a new refresh token.
+   *
+   * @param request payload containing the refresh token
+   * @return token, expiration and successor refresh token wrapped in {@link LoginResponse}
+   */
+  @Operation(summary = "Refresh access token", description = "Exchanges a refresh token for a new "
+      + "JWT token and a new refresh token. Each refresh token can be used once.")
+  @PostMapping(path = "/refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+    return ResponseEntity.ok(refreshTokenService.refresh(request.getRefreshToken()));
+  }
+
   /**
    * Verify a user's account using a verification code previously issued at signup.
    *
@@ -0,0 +1,16 @@
+package com.testing.ex.domain;
+
+/**
+ * Where product features are stored.
+ *
+ * <ul>
+ *   <li>{@link #TABLE}: one row per feature in product_features (legacy).</li>
+ *   <li>{@link #DUAL}: written to both the table and the products.features_json
+ *   column; read from the JSON column, falling back to the table for products
+ *   not yet backfilled. Used while migrating.</li>
+ *   <li>{@link #JSON}: only the products.features_json column.</li>
+ * </ul>
+ */
+public enum FeatureStorageMode {
+  TABLE, DUAL, JSON
+}
@@ -0,0 +1,88 @@
+package com.testing.ex.domain;
+
+import com.testing.ex.domain.dto.request.ProductListingFilter;
+import com.testing.ex.exception.BadRequestException;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Properties a product listing may be sorted by. Each one is the column
+ * following tenant_id in a products index, so the database returns rows in
+ * index order instead of sorting the tenant's whole catalog.
+ *
+ * <p>With a category or price-range filter only keys an index still walks in
+ * order, skipping the rows the filter excludes, keep that property; see
+ * {@link #isSortableWhenFiltered()}.
+ */
+public enum ProductSortKey {
+  CREATED_AT("createdAt", "created_at", true),
+  UPDATED_AT("updatedAt", "updated_at", false),
+  NAME("name", "name", false),
+  SKU("sku", "sku", false),
+  CATEGORY("category", "category", true),
+  PRICE("price", "price", true);
+
+  private final String property;
+  private final String column;
+  private final boolean sortableWhenFiltered;
+
+  ProductSortKey(String property, String column, boolean sortableWhenFiltered) {
+    this.property = property;
+    this.column = column;
+    this.sortableWhenFiltered = sortableWhenFiltered;
+  }
+
+  /**
+   * Returns the sort key of an entity property name.
+   *
+   * @param property the property name, e.g. "createdAt"
+   * @return the sort key, empty if sorting by the property is not supported
+   */
+  public static Optional<ProductSortKey> of(String property) {
+    return Arrays.stream(values()).filter(key -> key.property.equals(property)).findFirst();
+  }
+
+  /**
+   * Returns the sort key of a filtered listing, rejecting sorts no index
+   * delivers in order under the filter.
+   *
+   * @param property the property name, e.g. "createdAt"
+   * @param filter   the listing filter
+   * @return the sort key
+   * @throws BadRequestException if the property is unsupported, or is not
+   *                             sortable with a category or price-range filter
+   */
+  public static ProductSortKey forListing(String property, ProductListingFilter filter) {
+    ProductSortKey key = of(property)
+        .orElseThrow(() -> new BadRequestException("Unsupported sort property: " + property));
+    boolean filtered = filter.category() != null || filter.minPrice() != null
+        || filter.maxPrice() != null;
+    if (filtered && !key.sortableWhenFiltered) {
+      throw new BadRequestException("Sorting by " + property
+          + " is not supported together with a category or price filter");
+    }
+    return key;
+  }
+
+  /**
+   * Returns the entity property name.
+   */
+  public String property() {
+    return property;
+  }
+
+  /**
+   * Returns the products column.
+   */
+  public String column() {
+    return column;
+  }
+
+  /**
+   * Returns whether an index orders the products matching a category or
+   * price-range filter by this key.
+   */
+  public boolean isSortableWhenFiltered() {
+    return sortableWhenFiltered;
+  }
+}
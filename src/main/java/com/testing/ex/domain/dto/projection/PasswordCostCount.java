@@ -0,0 +1,13 @@
+package com.testing.ex.domain.dto.projection;
+
+/**
+ * Projection of a BCrypt cost and the number of stored hashes using it.
+ *
+ * @param cost  the two-digit cost field of the hash (e.g. "12")
+ * @param users the number of users whose hash has that cost
+ */
+public record PasswordCostCount(
+    String cost,
+    long users
+) {
+}
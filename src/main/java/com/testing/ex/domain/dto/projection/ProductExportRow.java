@@ -0,0 +1,33 @@
+package com.testing.ex.domain.dto.projection;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Flat projection of a product joined with one of its features, as read by
+ * the streaming export. A product without features yields a single row with
+ * a null feature key and value; a product with n features yields n
+ * consecutive rows.
+ *
+ * @param id           the product ID
+ * @param name         the product name
+ * @param sku          the product SKU
+ * @param category     the product category
+ * @param price        the product price
+ * @param description  the product description
+ * @param featuresJson the features stored in the JSON column, null if not (yet) stored there
+ * @param featureKey   the feature key, or null if the product has no features
+ * @param featureValue the feature value, or null if the product has no features
+ */
+public record ProductExportRow(
+    Long id,
+    String name,
+    String sku,
+    String category,
+    BigDecimal price,
+    String description,
+    Map<String, String> featuresJson,
+    String featureKey,
+    String featureValue
+) {
+}
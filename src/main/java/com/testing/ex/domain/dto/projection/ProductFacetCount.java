@@ -0,0 +1,15 @@
+package com.testing.ex.domain.dto.projection;
+
+/**
+ * Projection of a single facet bucket and its product count.
+ *
+ * @param facet  the facet name (e.g. "category")
+ * @param bucket the bucket within the facet (e.g. "phones")
+ * @param count  the number of products in the bucket
+ */
+public record ProductFacetCount(
+    String facet,
+    String bucket,
+    long count
+) {
+}
@@ -0,0 +1,15 @@
+package com.testing.ex.domain.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the columns of a product that determine its facet buckets.
+ *
+ * @param category the product category
+ * @param price    the product price
+ */
+public record ProductFacetRow(
+    String category,
+    BigDecimal price
+) {
+}
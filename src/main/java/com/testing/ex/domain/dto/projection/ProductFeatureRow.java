@@ -0,0 +1,16 @@
+package com.testing.ex.domain.dto.projection;
+
+/**
+ * Flat projection of a single entry of a product's feature map, used to
+ * hydrate the features of a whole page of products with one query.
+ *
+ * @param productId the owning product id
+ * @param key       the feature key (e.g. "ram")
+ * @param value     the feature value (e.g. "8GB")
+ */
+public record ProductFeatureRow(
+    Long productId,
+    String key,
+    String value
+) {
+}
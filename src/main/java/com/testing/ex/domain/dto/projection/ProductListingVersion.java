@@ -0,0 +1,15 @@
+package com.testing.ex.domain.dto.projection;
+
+/**
+ * Cheap fingerprint of a tenant's catalog used to validate cached listings.
+ * Every create, update or delete bumps the catalog version in the same
+ * transaction, so two states of the catalog never share a fingerprint.
+ *
+ * @param count   number of products owned by the tenant
+ * @param version the tenant's catalog version, 0 if it never had a product
+ */
+public record ProductListingVersion(
+    long count,
+    long version
+) {
+}
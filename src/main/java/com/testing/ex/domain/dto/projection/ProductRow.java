@@ -0,0 +1,44 @@
+package com.testing.ex.domain.dto.projection;
+
+import com.testing.ex.domain.dto.response.ProductResponse;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Read-only projection of the scalar columns of a product. Built directly by
+ * JPQL constructor expressions so read endpoints never materialize managed
+ * {@link com.testing.ex.domain.entity.Product} entities.
+ *
+ * @param id           the product ID
+ * @param name         the product name
+ * @param sku          the product SKU
+ * @param category     the product category
+ * @param price        the product price
+ * @param description  the product description
+ * @param createdAt    the creation timestamp
+ * @param updatedAt    the last modification timestamp
+ * @param featuresJson the features stored in the JSON column, null if not (yet) stored there
+ */
+public record ProductRow(
+    Long id,
+    String name,
+    String sku,
+    String category,
+    BigDecimal price,
+    String description,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Map<String, String> featuresJson
+) {
+
+  /**
+   * Combines this row with its separately loaded features into a response DTO.
+   *
+   * @param features the product's features
+   * @return the corresponding {@link ProductResponse}
+   */
+  public ProductResponse toResponse(Map<String, String> features) {
+    return new ProductResponse(id, name, sku, category, price, description, features);
+  }
+}
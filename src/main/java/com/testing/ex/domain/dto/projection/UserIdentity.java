@@ -0,0 +1,15 @@
+package com.testing.ex.domain.dto.projection;
+
+/**
+ * Projection of the unique identifiers of a user.
+ *
+ * @param id       user id
+ * @param email    the user's email
+ * @param username the user's username
+ */
+public record UserIdentity(
+    Long id,
+    String email,
+    String username
+) {
+}
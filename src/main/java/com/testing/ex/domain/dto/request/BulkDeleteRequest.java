@@ -0,0 +1,16 @@
+package com.testing.ex.domain.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for deleting several products by SKU.
+ *
+ * @param skus the SKUs of the products to delete
+ */
+public record BulkDeleteRequest(
+        @NotEmpty @Size(max = 10000) List<String> skus
+) {
+}
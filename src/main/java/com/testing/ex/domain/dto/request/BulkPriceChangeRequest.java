@@ -0,0 +1,21 @@
+package com.testing.ex.domain.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for changing the price of every product of a category by a percentage.
+ *
+ * @param category the category whose products are repriced
+ * @param percent  the change in percent, e.g. 10 for +10% or -15 for -15%
+ */
+public record BulkPriceChangeRequest(
+        @NotBlank String category,
+        @NotNull @DecimalMin(value = "-100", inclusive = false) @DecimalMax("1000")
+        BigDecimal percent
+) {
+}
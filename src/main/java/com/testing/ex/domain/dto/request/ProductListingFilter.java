@@ -0,0 +1,23 @@
+package com.testing.ex.domain.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional restrictions of a product listing. Null fields do not restrict;
+ * range bounds are inclusive.
+ *
+ * @param category    the category products must belong to
+ * @param minPrice    the lowest price
+ * @param maxPrice    the highest price
+ * @param createdFrom the earliest creation time
+ * @param createdTo   the latest creation time
+ */
+public record ProductListingFilter(
+        String category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {
+}
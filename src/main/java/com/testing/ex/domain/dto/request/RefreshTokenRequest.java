@@ -0,0 +1,24 @@
+package com.testing.ex.domain.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for access token renewal requests.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+  @NotBlank(message = "Refresh token is required")
+  @Size(max = 128, message = "Refresh token is too long")
+  private String refreshToken;
+}
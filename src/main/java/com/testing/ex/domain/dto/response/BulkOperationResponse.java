@@ -0,0 +1,11 @@
+package com.testing.ex.domain.dto.response;
+
+/**
+ * DTO for the result of a set-based bulk update or delete.
+ *
+ * @param affected number of products changed or removed
+ */
+public record BulkOperationResponse(
+    long affected
+) {
+}
@@ -0,0 +1,18 @@
+package com.testing.ex.domain.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset (cursor) paginated listing.
+ *
+ * @param content    the items of the current page
+ * @param nextCursor opaque token to fetch the following page, null on the last page
+ * @param hasNext    whether another page is available
+ * @param <T>        the item type
+ */
+public record CursorPageResponse<T>(
+    List<T> content,
+    String nextCursor,
+    boolean hasNext
+) {
+}
@@ -0,0 +1,13 @@
+package com.testing.ex.domain.dto.response;
+
+/**
+ * DTO for the number of products sharing a facet value.
+ *
+ * @param value the facet value (a category, or a price band such as "100-250")
+ * @param count the number of products with that value
+ */
+public record FacetCount(
+    String value,
+    long count
+) {
+}
@@ -1,5 +1,6 @@
 package com.testing.ex.domain.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,4 +18,10 @@ import lombok.Setter;
 public class LoginResponse {
   private String token;
   private Long expiration;
+
+  /**
+   * Single-use token for {@code POST /api/users/refresh}; absent on mock logins.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String refreshToken;
 }
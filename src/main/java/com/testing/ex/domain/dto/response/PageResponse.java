@@ -0,0 +1,53 @@
+package com.testing.ex.domain.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+/**
+ * DTO for an offset paginated listing. Replaces Spring's serialized
+ * {@code PageImpl}, whose {@code pageable} and {@code sort} structures repeat
+ * the request on every response, with a fixed set of fields.
+ *
+ * @param content       the items of the current page
+ * @param page          zero-based page number
+ * @param size          requested page size
+ * @param totalElements total number of items, omitted for listings without a count
+ * @param totalPages    total number of pages, omitted for listings without a count
+ * @param hasNext       whether another page is available
+ * @param <T>           the item type
+ */
+public record PageResponse<T>(
+    List<T> content,
+    int page,
+    int size,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long totalElements,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Integer totalPages,
+    boolean hasNext
+) {
+
+  /**
+   * Copies a page, including its totals.
+   *
+   * @param page the page to copy
+   * @param <T>  the item type
+   * @return the envelope
+   */
+  public static <T> PageResponse<T> of(Page<T> page) {
+    return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+        page.getTotalElements(), page.getTotalPages(), page.hasNext());
+  }
+
+  /**
+   * Copies a slice, which has no totals.
+   *
+   * @param slice the slice to copy
+   * @param <T>   the item type
+   * @return the envelope
+   */
+  public static <T> PageResponse<T> of(Slice<T> slice) {
+    return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+        null, null, slice.hasNext());
+  }
+}
@@ -0,0 +1,17 @@
+package com.testing.ex.domain.dto.response;
+
+/**
+ * DTO for the outcome of one item of a bulk product creation.
+ *
+ * @param index position of the item in the request
+ * @param sku   the SKU of the item as submitted
+ * @param id    id of the created product, null if the item was rejected
+ * @param error why the item was rejected, null if it was created
+ */
+public record ProductBatchItemResult(
+    int index,
+    String sku,
+    Long id,
+    String error
+) {
+}
@@ -0,0 +1,17 @@
+package com.testing.ex.domain.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a bulk product creation.
+ *
+ * @param created  number of products created
+ * @param rejected number of items rejected
+ * @param results  one result per submitted item, in request order
+ */
+public record ProductBatchResponse(
+    int created,
+    int rejected,
+    List<ProductBatchItemResult> results
+) {
+}
@@ -0,0 +1,11 @@
+package com.testing.ex.domain.dto.response;
+
+/**
+ * DTO for the total number of products owned by a tenant.
+ *
+ * @param total the number of products
+ */
+public record ProductCountResponse(
+    long total
+) {
+}
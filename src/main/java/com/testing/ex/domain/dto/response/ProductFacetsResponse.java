@@ -0,0 +1,15 @@
+package com.testing.ex.domain.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO for the facet counts of a tenant's catalog.
+ *
+ * @param categories product counts per category, largest first
+ * @param priceBands product counts per price band, in ascending price order
+ */
+public record ProductFacetsResponse(
+    List<FacetCount> categories,
+    List<FacetCount> priceBands
+) {
+}
@@ -13,6 +13,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 
 /**
@@ -24,7 +26,14 @@ import lombok.NoArgsConstructor;
 @Table(name = "products", indexes = {
         @Index(name = "ix_products_tenant_sku", columnList = "tenantId,sku", unique = true),
         @Index(name = "ix_products_tenant_category", columnList = "tenantId,category"),
-        @Index(name = "ix_products_tenant_name", columnList = "tenantId,name")
+        @Index(name = "ix_products_tenant_name", columnList = "tenantId,name"),
+        @Index(name = "ix_products_tenant_created_id", columnList = "tenantId,createdAt,id"),
+        @Index(name = "ix_products_tenant_updated", columnList = "tenantId,updatedAt"),
+        @Index(name = "ix_products_tenant_price", columnList = "tenantId,price,id"),
+        @Index(name = "ix_products_tenant_category_price",
+            columnList = "tenantId,category,price,id"),
+        @Index(name = "ix_products_tenant_category_created",
+            columnList = "tenantId,category,createdAt,id")
 })
 @Data
 @AllArgsConstructor
@@ -55,17 +64,36 @@ public class Product {
     private String description;
 
     @ElementCollection
-    @CollectionTable(name = "product_features", joinColumns = @JoinColumn(name = "product_id"))
+    @CollectionTable(name = "product_features", joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "ix_product_features_key_value",
+                    columnList = "feature_key,features,product_id"))
     @Column(name = "features")
     @MapKeyColumn(name = "feature_key")
     private Map<String, String> features;
 
+    /**
+     * Features as a single JSON document, written and read depending on
+     * {@code products.features.storage}. Null for products not yet backfilled.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "features_json")
+    private Map<String, String> featuresJson;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic-lock counter, incremented by every write; the product ETag
+     * and ciphertext cache are keyed on it since updatedAt only has second
+     * precision.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * Lifecycle callback to set timestamps before persisting.
      */
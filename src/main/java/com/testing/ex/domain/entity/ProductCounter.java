@@ -0,0 +1,39 @@
+package com.testing.ex.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of products owned by a tenant. Kept up to date by the product write
+ * paths in the same transaction, so totals can be read by primary key instead
+ * of counting the products table. The catalog version is bumped by every
+ * write and versions the tenant's listings.
+ */
+@Entity
+@Table(name = "product_counters")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductCounter {
+
+  @Id
+  @Column(name = "tenant_id", length = 36)
+  private String tenantId;
+
+  @Column(name = "product_count", nullable = false)
+  private long productCount;
+
+  @Column(name = "catalog_version", nullable = false)
+  private long catalogVersion;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,68 @@
+package com.testing.ex.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of products of a tenant falling into one bucket of a facet (a
+ * category, or a price band). Kept up to date by the product write paths in
+ * the same transaction, so filter sidebars never group the products table.
+ */
+@Entity
+@Table(name = "product_facets")
+@IdClass(ProductFacet.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductFacet {
+
+  /**
+   * Facet counting products per category.
+   */
+  public static final String CATEGORY = "category";
+
+  /**
+   * Facet counting products per {@link com.testing.ex.utils.PriceBands price band}.
+   */
+  public static final String PRICE = "price";
+
+  @Id
+  @Column(name = "tenant_id", length = 36)
+  private String tenantId;
+
+  @Id
+  @Column(name = "facet", length = 20)
+  private String facet;
+
+  @Id
+  @Column(name = "bucket", length = 60)
+  private String bucket;
+
+  @Column(name = "product_count", nullable = false)
+  private long productCount;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  /**
+   * Composite primary key of {@link ProductFacet}.
+   */
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class Key implements Serializable {
+    private String tenantId;
+    private String facet;
+    private String bucket;
+  }
+}
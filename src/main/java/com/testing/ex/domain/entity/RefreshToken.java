@@ -0,0 +1,62 @@
+package com.testing.ex.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Refresh token issued at login and rotated on every use. Only a keyed hash
+ * of the token is stored, so a leaked table cannot be replayed; the unique
+ * index on the hash serves the lookup. A token is single use: refreshing
+ * revokes it and issues a successor.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RefreshToken {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ToString.Exclude
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @Column(name = "token_hash", nullable = false, unique = true, length = 43)
+  private String tokenHash;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  @Column(name = "revoked_at")
+  private LocalDateTime revokedAt;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  /**
+   * Sets the creation timestamp before persisting.
+   */
+  @PrePersist
+  public void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,17 @@
+package com.testing.ex.exception;
+
+/**
+ * Thrown when a client supplied request parameter is syntactically valid but
+ * cannot be honoured (for example a tampered pagination cursor). Translated
+ * into an HTTP 400 response by the global exception handler.
+ */
+public class BadRequestException extends RuntimeException {
+
+  public BadRequestException(String message) {
+    super(message);
+  }
+
+  public BadRequestException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,16 @@
+package com.testing.ex.exception;
+
+/**
+ * Thrown when a request would duplicate a value that must be unique.
+ * Translated into an HTTP 409 response by the global exception handler.
+ */
+public class ConflictException extends RuntimeException {
+
+  public ConflictException(String message) {
+    super(message);
+  }
+
+  public ConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
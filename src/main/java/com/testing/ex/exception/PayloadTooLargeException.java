@@ -0,0 +1,12 @@
+package com.testing.ex.exception;
+
+/**
+ * Thrown when a request body exceeds the size accepted by an endpoint.
+ * Translated into an HTTP 413 response by the global exception handler.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+  public PayloadTooLargeException(String message) {
+    super(message);
+  }
+}
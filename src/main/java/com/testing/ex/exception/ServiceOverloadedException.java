@@ -0,0 +1,20 @@
+package com.testing.ex.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource (such as the password hashing executor) has
+ * no capacity left for the request. Translated into an HTTP 503 response with
+ * a {@code Retry-After} header by the global exception handler.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+}
@@ -0,0 +1,89 @@
+package com.testing.ex.migration;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Liquibase task that copies the rows of product_features into the
+ * products.features_json column. Products are processed in primary key
+ * ranges of {@code chunkSize}, each committed on its own, so row locks and
+ * undo stay small and an interrupted run resumes where it stopped: only
+ * products whose features_json is still NULL are touched. Products without
+ * features receive an empty JSON object so readers can tell them apart from
+ * products that were not backfilled yet.
+ */
+@Slf4j
+@Getter
+@Setter
+public class ProductFeaturesJsonBackfill implements CustomTaskChange {
+
+  private static final String BACKFILL_SQL = "UPDATE products p SET p.features_json = COALESCE("
+      + "(SELECT JSON_OBJECTAGG(f.feature_key, f.features) FROM product_features f"
+      + " WHERE f.product_id = p.id), JSON_OBJECT())"
+      + " WHERE p.id > ? AND p.id <= ? AND p.features_json IS NULL";
+
+  private String chunkSize = "1000";
+
+  @Override
+  public void execute(Database database) throws CustomChangeException {
+    JdbcConnection connection = (JdbcConnection) database.getConnection();
+    long chunk = Long.parseLong(chunkSize);
+    try {
+      long maxId;
+      try (PreparedStatement ps = connection.prepareStatement("SELECT MAX(id) FROM products");
+           ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        maxId = rs.getLong(1);
+      }
+      long updated = 0;
+      for (long from = 0; from < maxId; from += chunk) {
+        try (PreparedStatement ps = connection.prepareStatement(BACKFILL_SQL)) {
+          ps.setLong(1, from);
+          ps.setLong(2, from + chunk);
+          updated += ps.executeUpdate();
+        }
+        connection.commit();
+      }
+      log.info("action=backfillFeaturesJson maxId={} updated={}", maxId, updated);
+    } catch (SQLException | DatabaseException e) {
+      throw new CustomChangeException("Backfilling products.features_json failed", e);
+    }
+  }
+
+  @Override
+  public String getConfirmationMessage() {
+    return "products.features_json backfilled from product_features";
+  }
+
+  @Override
+  public void setUp() {
+  }
+
+  @Override
+  public void setFileOpener(ResourceAccessor resourceAccessor) {
+  }
+
+  @Override
+  public ValidationErrors validate(Database database) {
+    ValidationErrors errors = new ValidationErrors();
+    try {
+      if (Long.parseLong(chunkSize) < 1) {
+        errors.addError("chunkSize must be positive");
+      }
+    } catch (NumberFormatException e) {
+      errors.addError("chunkSize must be a number");
+    }
+    return errors;
+  }
+}
@@ -0,0 +1,21 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.entity.Product;
+import java.util.List;
+
+/**
+ * Repository fragment for inserting many products in one transaction with
+ * JDBC statement batching.
+ */
+public interface ProductBatchRepository {
+
+  /**
+   * Persist the given new products, flushing and clearing the persistence
+   * context after every JDBC batch so memory stays bounded by the batch size
+   * rather than the number of products. Ids are assigned to the passed
+   * instances, which are detached when the method returns.
+   *
+   * @param products new products to insert
+   */
+  void persistInBatches(List<Product> products);
+}
@@ -0,0 +1,36 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Default implementation of {@link ProductBatchRepository}. Relies on
+ * {@code hibernate.jdbc.batch_size} and {@code hibernate.order_inserts} so the
+ * product and product_features inserts of each chunk are sent as two JDBC
+ * batches, and on the pooled products_seq generator so ids are reserved in
+ * blocks instead of one round trip per row.
+ */
+public class ProductBatchRepositoryImpl implements ProductBatchRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+
+  @Override
+  public void persistInBatches(List<Product> products) {
+    for (int i = 0; i < products.size(); i++) {
+      entityManager.persist(products.get(i));
+      if ((i + 1) % batchSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+}
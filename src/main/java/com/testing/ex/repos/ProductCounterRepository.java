@@ -0,0 +1,55 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.dto.projection.ProductListingVersion;
+import com.testing.ex.domain.entity.ProductCounter;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the per-tenant product counters.
+ */
+@Repository
+public interface ProductCounterRepository extends JpaRepository<ProductCounter, String> {
+
+  /**
+   * Atomically add the given delta to the tenant's product count and bump its
+   * catalog version, creating the counter row on first use. Must run in the
+   * transaction that writes the products so neither drifts from the table;
+   * writes that keep the count call it with a delta of zero.
+   *
+   * @param tenantId tenant identifier
+   * @param delta    number of products added (positive) or removed (negative)
+   */
+  @Modifying
+  @Query(value = "INSERT INTO product_counters"
+      + " (tenant_id, product_count, catalog_version, updated_at)"
+      + " VALUES (:tenantId, :delta, 1, CURRENT_TIMESTAMP)"
+      + " ON DUPLICATE KEY UPDATE product_count = product_count + :delta,"
+      + " catalog_version = catalog_version + 1,"
+      + " updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+  void adjust(@Param("tenantId") String tenantId, @Param("delta") long delta);
+
+  /**
+   * Read the number of products owned by a tenant with a primary key lookup.
+   *
+   * @param tenantId tenant identifier
+   * @return the product count, empty if the tenant never had a product
+   */
+  @Query("SELECT c.productCount FROM ProductCounter c WHERE c.tenantId = :tenantId")
+  Optional<Long> findCountByTenantId(@Param("tenantId") String tenantId);
+
+  /**
+   * Read the tenant's product count and catalog version with a primary key lookup.
+   *
+   * @param tenantId tenant identifier
+   * @return the listing version, empty if the tenant never had a product
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.ProductListingVersion("
+      + "c.productCount, c.catalogVersion) FROM ProductCounter c WHERE c.tenantId = :tenantId")
+  Optional<ProductListingVersion> findListingVersionByTenantId(
+      @Param("tenantId") String tenantId);
+}
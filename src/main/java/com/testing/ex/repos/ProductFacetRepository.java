@@ -0,0 +1,95 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.dto.projection.ProductFacetCount;
+import com.testing.ex.domain.entity.ProductFacet;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the per-tenant facet counts.
+ */
+@Repository
+public interface ProductFacetRepository extends JpaRepository<ProductFacet, ProductFacet.Key> {
+
+  /**
+   * SQL expression mapping {@code price} to its band label. Mirrors
+   * {@link com.testing.ex.utils.PriceBands}.
+   */
+  String PRICE_BAND_CASE = "CASE WHEN price < 50 THEN '0-50'"
+      + " WHEN price < 100 THEN '50-100'"
+      + " WHEN price < 250 THEN '100-250'"
+      + " WHEN price < 500 THEN '250-500'"
+      + " WHEN price < 1000 THEN '500-1000'"
+      + " ELSE '1000+' END";
+
+  /**
+   * Atomically add the given delta to the count of a facet bucket, creating
+   * the row on first use. Must run in the transaction that changes the
+   * products so the counts never drift from the table.
+   *
+   * @param tenantId tenant identifier
+   * @param facet    facet name, see {@link ProductFacet#CATEGORY} and {@link ProductFacet#PRICE}
+   * @param bucket   bucket within the facet
+   * @param delta    number of products added (positive) or removed (negative)
+   */
+  @Modifying
+  @Query(value = "INSERT INTO product_facets (tenant_id, facet, bucket, product_count, updated_at)"
+      + " VALUES (:tenantId, :facet, :bucket, :delta, CURRENT_TIMESTAMP)"
+      + " ON DUPLICATE KEY UPDATE product_count = product_count + :delta,"
+      + " updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+  void adjust(@Param("tenantId") String tenantId, @Param("facet") String facet,
+              @Param("bucket") String bucket, @Param("delta") long delta);
+
+  /**
+   * Read the non-empty buckets of every facet of a tenant with a primary key
+   * range scan, independent of the number of products.
+   *
+   * @param tenantId tenant identifier
+   * @return one row per non-empty bucket
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.ProductFacetCount("
+      + "f.facet, f.bucket, f.productCount)"
+      + " FROM ProductFacet f WHERE f.tenantId = :tenantId AND f.productCount > 0")
+  List<ProductFacetCount> findCountsByTenantId(@Param("tenantId") String tenantId);
+
+  /**
+   * Delete every facet count of a tenant.
+   *
+   * @param tenantId tenant identifier
+   * @return number of deleted rows
+   */
+  @Modifying
+  @Query("DELETE FROM ProductFacet f WHERE f.tenantId = :tenantId")
+  int deleteByTenantId(@Param("tenantId") String tenantId);
+
+  /**
+   * Recompute the category counts of a tenant from the products table.
+   *
+   * @param tenantId tenant identifier
+   * @return number of inserted buckets
+   */
+  @Modifying
+  @Query(value = "INSERT INTO product_facets (tenant_id, facet, bucket, product_count, updated_at)"
+      + " SELECT tenant_id, '" + ProductFacet.CATEGORY + "', category, COUNT(*),"
+      + " CURRENT_TIMESTAMP FROM products WHERE tenant_id = :tenantId"
+      + " GROUP BY tenant_id, category", nativeQuery = true)
+  int insertCategoryCounts(@Param("tenantId") String tenantId);
+
+  /**
+   * Recompute the price band counts of a tenant from the products table.
+   *
+   * @param tenantId tenant identifier
+   * @return number of inserted buckets
+   */
+  @Modifying
+  @Query(value = "INSERT INTO product_facets (tenant_id, facet, bucket, product_count, updated_at)"
+      + " SELECT tenant_id, '" + ProductFacet.PRICE + "', band, COUNT(*), CURRENT_TIMESTAMP"
+      + " FROM (SELECT tenant_id, " + PRICE_BAND_CASE + " AS band"
+      + " FROM products WHERE tenant_id = :tenantId) banded"
+      + " GROUP BY tenant_id, band", nativeQuery = true)
+  int insertPriceBandCounts(@Param("tenantId") String tenantId);
+}
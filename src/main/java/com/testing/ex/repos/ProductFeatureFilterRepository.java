@@ -0,0 +1,23 @@
+package com.testing.ex.repos;
+
+import java.util.Map;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Repository fragment for listing a tenant's products that have every one of
+ * a set of feature values.
+ */
+public interface ProductFeatureFilterRepository {
+
+  /**
+   * Find a page of ids of the tenant's products having all given features.
+   *
+   * @param tenantId tenant identifier
+   * @param features required feature values keyed by feature key
+   * @param pageable pagination and sort information
+   * @return page of matching product ids in the requested order
+   */
+  Page<Long> findIdsByTenantIdAndFeatures(String tenantId, Map<String, String> features,
+                                          Pageable pageable);
+}
@@ -0,0 +1,205 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.ProductSortKey;
+import com.testing.ex.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Default implementation of {@link ProductFeatureFilterRepository}.
+ *
+ * <p>Each predicate is first probed against the
+ * (feature_key, features, product_id) index with a bounded count, and the
+ * predicates are applied most selective first. When the rarest feature value
+ * matches fewer rows than the tenant owns products, the query is driven from
+ * that index range and joins products by primary key; otherwise it walks the
+ * tenant's products and checks each feature with a primary key lookup on
+ * product_features. The JOIN_ORDER optimizer hint pins the chosen order on
+ * MySQL and is a plain comment elsewhere.
+ *
+ * <p>When features are stored only in the products.features_json column
+ * there is no product_features index to probe. The tenant's products are
+ * then filtered on the indexed generated columns of the hot keys first and on
+ * JSON_EXTRACT for any other key.
+ */
+public class ProductFeatureFilterRepositoryImpl implements ProductFeatureFilterRepository {
+
+  /**
+   * Upper bound of rows counted when probing the selectivity of a predicate.
+   */
+  static final int PROBE_CAP = 10_000;
+
+  /**
+   * Feature keys exposed as indexed generated columns of products (changeset 011).
+   */
+  private static final Map<String, String> HOT_KEY_COLUMNS = Map.of(
+      "ram", "p.feature_ram",
+      "storage", "p.feature_storage");
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final ProductFeatureStorage featureStorage;
+
+  public ProductFeatureFilterRepositoryImpl(ProductFeatureStorage featureStorage) {
+    this.featureStorage = featureStorage;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Page<Long> findIdsByTenantIdAndFeatures(String tenantId, Map<String, String> features,
+                                                 Pageable pageable) {
+    List<Predicate> predicates = new ArrayList<>();
+    String from;
+    String hint = "";
+    if (featureStorage.usesTable()) {
+      for (Map.Entry<String, String> feature : features.entrySet()) {
+        long estimate = probe(feature.getKey(), feature.getValue());
+        if (estimate == 0) {
+          return Page.empty(pageable);
+        }
+        predicates.add(new Predicate(feature.getKey(), feature.getValue(), estimate));
+      }
+      predicates.sort(Comparator.comparingLong(Predicate::estimate));
+      boolean featureDriven = predicates.get(0).estimate() < tenantProductCount(tenantId);
+      from = tableFrom(predicates, featureDriven);
+      if (featureDriven) {
+        hint = "/*+ JOIN_ORDER(f0, p) */ ";
+      }
+    } else {
+      for (Map.Entry<String, String> feature : features.entrySet()) {
+        boolean hot = HOT_KEY_COLUMNS.containsKey(feature.getKey());
+        predicates.add(new Predicate(feature.getKey(), feature.getValue(), hot ? 0 : 1));
+      }
+      predicates.sort(Comparator.comparingLong(Predicate::estimate));
+      from = jsonFrom(predicates);
+    }
+
+    Query select = bind(entityManager.createNativeQuery(
+        "SELECT " + hint + "p.id" + from + orderBy(pageable.getSort())), tenantId, predicates);
+    select.setFirstResult((int) pageable.getOffset());
+    select.setMaxResults(pageable.getPageSize());
+    List<Long> ids = ((List<Number>) select.getResultList()).stream()
+        .map(Number::longValue)
+        .toList();
+
+    long total;
+    if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+      total = ids.size();
+    } else {
+      Query count = bind(entityManager.createNativeQuery("SELECT COUNT(*)" + from),
+          tenantId, predicates);
+      total = ((Number) count.getSingleResult()).longValue();
+    }
+    return new PageImpl<>(ids, pageable, total);
+  }
+
+  /**
+   * Counts rows matching one predicate, stopping at {@link #PROBE_CAP}. Reads
+   * only the (feature_key, features, product_id) index.
+   */
+  private long probe(String key, String value) {
+    Number count = (Number) entityManager.createNativeQuery(
+            "SELECT COUNT(*) FROM (SELECT 1 FROM product_features"
+                + " WHERE feature_key = :key AND features = :value LIMIT " + PROBE_CAP + ") t")
+        .setParameter("key", key)
+        .setParameter("value", value)
+        .getSingleResult();
+    return count.longValue();
+  }
+
+  private long tenantProductCount(String tenantId) {
+    List<?> counts = entityManager.createNativeQuery(
+            "SELECT product_count FROM product_counters WHERE tenant_id = :tenantId")
+        .setParameter("tenantId", tenantId)
+        .getResultList();
+    return counts.isEmpty() ? 0 : ((Number) counts.get(0)).longValue();
+  }
+
+  private static String tableFrom(List<Predicate> predicates, boolean featureDriven) {
+    StringBuilder sql = new StringBuilder();
+    int first;
+    if (featureDriven) {
+      sql.append(" FROM product_features f0 JOIN products p ON p.id = f0.product_id")
+          .append(" WHERE f0.feature_key = :k0 AND f0.features = :v0")
+          .append(" AND p.tenant_id = :tenantId");
+      first = 1;
+    } else {
+      sql.append(" FROM products p WHERE p.tenant_id = :tenantId");
+      first = 0;
+    }
+    for (int i = first; i < predicates.size(); i++) {
+      sql.append(" AND EXISTS (SELECT 1 FROM product_features f").append(i)
+          .append(" WHERE f").append(i).append(".product_id = p.id")
+          .append(" AND f").append(i).append(".feature_key = :k").append(i)
+          .append(" AND f").append(i).append(".features = :v").append(i).append(')');
+    }
+    return sql.toString();
+  }
+
+  private static String jsonFrom(List<Predicate> predicates) {
+    StringBuilder sql = new StringBuilder(" FROM products p WHERE p.tenant_id = :tenantId");
+    for (int i = 0; i < predicates.size(); i++) {
+      String column = HOT_KEY_COLUMNS.get(predicates.get(i).key());
+      if (column != null) {
+        sql.append(" AND ").append(column).append(" = :v").append(i);
+      } else {
+        sql.append(" AND JSON_UNQUOTE(JSON_EXTRACT(p.features_json, :k").append(i)
+            .append(")) = :v").append(i);
+      }
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Orders by the {@link ProductSortKey} columns of the sort, then by id in
+   * the direction of the last order so the tie-breaker follows the same index
+   * direction.
+   */
+  static String orderBy(Sort sort) {
+    StringBuilder sql = new StringBuilder(" ORDER BY ");
+    String direction = " ASC";
+    for (Sort.Order order : sort) {
+      ProductSortKey key = ProductSortKey.of(order.getProperty())
+          .orElseThrow(() -> new BadRequestException("Unsupported sort property: "
+              + order.getProperty()));
+      direction = order.isAscending() ? " ASC" : " DESC";
+      sql.append("p.").append(key.column()).append(direction).append(", ");
+    }
+    return sql.append("p.id").append(direction).toString();
+  }
+
+  /**
+   * Binds the tenant and the predicate values. Keys are bound as-is for the
+   * product_features queries and as quoted JSON paths for the JSON column;
+   * hot keys of the JSON column are part of the SQL and have no key parameter.
+   */
+  private Query bind(Query query, String tenantId, List<Predicate> predicates) {
+    query.setParameter("tenantId", tenantId);
+    boolean table = featureStorage.usesTable();
+    for (int i = 0; i < predicates.size(); i++) {
+      Predicate predicate = predicates.get(i);
+      if (table) {
+        query.setParameter("k" + i, predicate.key());
+      } else if (!HOT_KEY_COLUMNS.containsKey(predicate.key())) {
+        query.setParameter("k" + i, "$.\"" + predicate.key().replace("\\", "\\\\")
+            .replace("\"", "\\\"") + "\"");
+      }
+      query.setParameter("v" + i, predicate.value());
+    }
+    return query;
+  }
+
+  private record Predicate(String key, String value, long estimate) {
+  }
+}
@@ -0,0 +1,23 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.dto.request.ProductListingFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Repository fragment for listing a tenant's products by category, price
+ * range and creation time range.
+ */
+public interface ProductListingRepository {
+
+  /**
+   * Find a page of ids of the tenant's products matching the filter.
+   *
+   * @param tenantId tenant identifier
+   * @param filter   restrictions; null fields do not restrict
+   * @param pageable pagination and a single sort order by a sort key property
+   * @return page of matching product ids in the requested order
+   */
+  Page<Long> findIdsByTenantIdAndFilter(String tenantId, ProductListingFilter filter,
+                                        Pageable pageable);
+}
@@ -0,0 +1,101 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.ProductSortKey;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Default implementation of {@link ProductListingRepository}.
+ *
+ * <p>The tenant and category are equality predicates and the price and
+ * creation ranges are plain comparisons, so an index starting with
+ * (tenant_id[, category]) followed by the sort column both narrows the scan
+ * and yields the rows in order. The sort key and its tie-breaker on id are
+ * taken from {@link ProductSortKey}, never from client input. Sorts no index
+ * delivers under a category or price-range filter are rejected rather than
+ * left to a filesort of the tenant's catalog.
+ */
+public class ProductListingRepositoryImpl implements ProductListingRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Page<Long> findIdsByTenantIdAndFilter(String tenantId, ProductListingFilter filter,
+                                               Pageable pageable) {
+    String from = from(filter);
+    Query select = bind(entityManager.createNativeQuery(
+        "SELECT p.id" + from + orderBy(pageable.getSort(), filter)), tenantId, filter);
+    select.setFirstResult((int) pageable.getOffset());
+    select.setMaxResults(pageable.getPageSize());
+    List<Long> ids = ((List<Number>) select.getResultList()).stream()
+        .map(Number::longValue)
+        .toList();
+
+    long total;
+    if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+      total = ids.size();
+    } else {
+      Query count = bind(entityManager.createNativeQuery("SELECT COUNT(*)" + from),
+          tenantId, filter);
+      total = ((Number) count.getSingleResult()).longValue();
+    }
+    return new PageImpl<>(ids, pageable, total);
+  }
+
+  static String from(ProductListingFilter filter) {
+    StringBuilder sql = new StringBuilder(" FROM products p WHERE p.tenant_id = :tenantId");
+    if (filter.category() != null) {
+      sql.append(" AND p.category = :category");
+    }
+    if (filter.minPrice() != null) {
+      sql.append(" AND p.price >= :minPrice");
+    }
+    if (filter.maxPrice() != null) {
+      sql.append(" AND p.price <= :maxPrice");
+    }
+    if (filter.createdFrom() != null) {
+      sql.append(" AND p.created_at >= :createdFrom");
+    }
+    if (filter.createdTo() != null) {
+      sql.append(" AND p.created_at <= :createdTo");
+    }
+    return sql.toString();
+  }
+
+  static String orderBy(Sort sort, ProductListingFilter filter) {
+    Sort.Order order = sort.stream().findFirst()
+        .orElse(Sort.Order.desc(ProductSortKey.CREATED_AT.property()));
+    ProductSortKey key = ProductSortKey.forListing(order.getProperty(), filter);
+    String direction = order.isAscending() ? " ASC" : " DESC";
+    return " ORDER BY p." + key.column() + direction + ", p.id" + direction;
+  }
+
+  static Query bind(Query query, String tenantId, ProductListingFilter filter) {
+    query.setParameter("tenantId", tenantId);
+    if (filter.category() != null) {
+      query.setParameter("category", filter.category());
+    }
+    if (filter.minPrice() != null) {
+      query.setParameter("minPrice", filter.minPrice());
+    }
+    if (filter.maxPrice() != null) {
+      query.setParameter("maxPrice", filter.maxPrice());
+    }
+    if (filter.createdFrom() != null) {
+      query.setParameter("createdFrom", filter.createdFrom());
+    }
+    if (filter.createdTo() != null) {
+      query.setParameter("createdTo", filter.createdTo());
+    }
+    return query;
+  }
+}
@@ -1,12 +1,27 @@
 package com.testing.ex.repos;
 
+import com.testing.ex.domain.dto.projection.ProductExportRow;
+import com.testing.ex.domain.dto.projection.ProductFacetRow;
+import com.testing.ex.domain.dto.projection.ProductFeatureRow;
+import com.testing.ex.domain.dto.projection.ProductRow;
 import com.testing.ex.domain.entity.Product;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,7 +32,17 @@ import org.springframework.stereotype.Repository;
  * access layer.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>,
+    ProductBatchRepository, ProductSearchRepository, ProductFeatureFilterRepository,
+    ProductListingRepository {
+
+  /**
+   * Select clause shared by the projection queries; maps a product to a {@link ProductRow}.
+   */
+  String PRODUCT_ROW_SELECT = "SELECT new com.testing.ex.domain.dto.projection.ProductRow("
+      + "p.id, p.name, p.sku, p.category, p.price, p.description, p.createdAt, p.updatedAt,"
+      + " p.featuresJson)"
+      + " FROM Product p";
 
   /**
    * Find all products belonging to the given tenant.
@@ -27,6 +52,231 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
    */
   Page<Product> findAllByTenantId(String userId, Pageable pageable);
 
+  /**
+   * Find a page of product projections belonging to the given tenant. Rows are
+   * not attached to the persistence context, so no dirty-checking snapshot is kept.
+   *
+   * @param tenantId tenant identifier
+   * @param pageable pagination and sort information
+   * @return page of product rows for the tenant
+   */
+  @Query(value = PRODUCT_ROW_SELECT + " WHERE p.tenantId = :tenantId",
+      countQuery = "SELECT COUNT(p) FROM Product p WHERE p.tenantId = :tenantId")
+  Page<ProductRow> findRowsByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
+
+  /**
+   * Find a slice of product projections belonging to the given tenant. One
+   * extra row is read to detect a following slice, so unlike
+   * {@link #findRowsByTenantId} no COUNT query is issued.
+   *
+   * @param tenantId tenant identifier
+   * @param pageable pagination and sort information
+   * @return slice of product rows for the tenant
+   */
+  @Query(PRODUCT_ROW_SELECT + " WHERE p.tenantId = :tenantId")
+  Slice<ProductRow> findRowSliceByTenantId(@Param("tenantId") String tenantId,
+                                           Pageable pageable);
+
+  /**
+   * Find the projections of the tenant's products with the given ids, in no
+   * particular order.
+   *
+   * @param tenantId tenant identifier
+   * @param ids      product ids
+   * @return product rows of the ids that exist and belong to the tenant
+   */
+  @Query(PRODUCT_ROW_SELECT + " WHERE p.tenantId = :tenantId AND p.id IN :ids")
+  List<ProductRow> findRowsByTenantIdAndIdIn(@Param("tenantId") String tenantId,
+                                             @Param("ids") Collection<Long> ids);
+
+  /**
+   * Find the projection of a single product by its id and tenant id.
+   *
+   * @param id       the product numeric id
+   * @param tenantId the tenant identifier
+   * @return optional product row if found and belongs to tenant
+   */
+  @Query(PRODUCT_ROW_SELECT + " WHERE p.id = :id AND p.tenantId = :tenantId")
+  Optional<ProductRow> findRowByIdAndTenantId(@Param("id") Long id,
+                                              @Param("tenantId") String tenantId);
+
+  /**
+   * Find the first keyset page of a tenant, newest first. Served by the
+   * (tenant_id, created_at, id) index and never issues a count query.
+   *
+   * @param tenantId tenant identifier
+   * @param limit    maximum number of rows to return
+   * @return product rows ordered by createdAt and id descending
+   */
+  @Query(PRODUCT_ROW_SELECT + " WHERE p.tenantId = :tenantId"
+      + " ORDER BY p.createdAt DESC, p.id DESC")
+  List<ProductRow> findKeysetFirstPage(@Param("tenantId") String tenantId, Limit limit);
+
+  /**
+   * Find the keyset page of a tenant that follows the given (createdAt, id)
+   * position. The seek predicate lets the database start reading at the
+   * cursor instead of skipping over every preceding row.
+   *
+   * @param tenantId  tenant identifier
+   * @param createdAt creation timestamp of the last row of the previous page
+   * @param id        id of the last row of the previous page
+   * @param limit     maximum number of rows to return
+   * @return product rows ordered by createdAt and id descending
+   */
+  @Query(PRODUCT_ROW_SELECT + " WHERE p.tenantId = :tenantId"
+      + " AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))"
+      + " ORDER BY p.createdAt DESC, p.id DESC")
+  List<ProductRow> findKeysetPageAfter(@Param("tenantId") String tenantId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+  /**
+   * Read only the version counter of a product, used to answer conditional
+   * requests without loading the product.
+   *
+   * @param id       the product numeric id
+   * @param tenantId the tenant identifier
+   * @return the product's version if found and belongs to tenant
+   */
+  @Query("SELECT p.version FROM Product p WHERE p.id = :id AND p.tenantId = :tenantId")
+  Optional<Long> findVersionByIdAndTenantId(@Param("id") Long id,
+                                            @Param("tenantId") String tenantId);
+
+  /**
+   * Load the feature entries of several products in a single query. Used to
+   * hydrate a page of products without touching each lazy feature collection.
+   *
+   * @param productIds ids of the products whose features are needed
+   * @return one row per (product, feature key) pair
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.ProductFeatureRow(p.id, KEY(f), VALUE(f))"
+      + " FROM Product p JOIN p.features f WHERE p.id IN :productIds")
+  List<ProductFeatureRow> findFeatureRowsByProductIdIn(
+      @Param("productIds") Collection<Long> productIds);
+
+  /**
+   * Stream every product of a tenant joined with its features, ordered so the
+   * rows of one product are adjacent. The fetch size of {@link Integer#MIN_VALUE}
+   * makes MySQL Connector/J stream rows from the server one at a time instead
+   * of buffering the whole result, and the projection keeps rows out of the
+   * persistence context, so memory use does not depend on the catalog size.
+   *
+   * <p>The stream must be consumed and closed inside a transaction. While it
+   * is open the connection cannot run other statements.
+   *
+   * @param tenantId tenant identifier
+   * @return lazily read export rows ordered by createdAt and id
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.testing.ex.domain.dto.projection.ProductExportRow("
+      + "p.id, p.name, p.sku, p.category, p.price, p.description, p.featuresJson,"
+      + " KEY(f), VALUE(f))"
+      + " FROM Product p LEFT JOIN p.features f WHERE p.tenantId = :tenantId"
+      + " ORDER BY p.createdAt, p.id")
+  Stream<ProductExportRow> streamExportRowsByTenantId(@Param("tenantId") String tenantId);
+
+  /**
+   * Find which of the given SKUs are already used by the tenant. Resolved
+   * from the unique (tenant_id, sku) index.
+   *
+   * @param tenantId tenant identifier
+   * @param skus     candidate SKUs
+   * @return the subset of SKUs that already exist for the tenant
+   */
+  @Query("SELECT p.sku FROM Product p WHERE p.tenantId = :tenantId AND p.sku IN :skus")
+  List<String> findExistingSkus(@Param("tenantId") String tenantId,
+                                @Param("skus") Collection<String> skus);
+
+  /**
+   * Find the ids of the tenant's products in a category that follow the
+   * given id, in id order. Walks the (tenant_id, category) index, whose
+   * entries end with the primary key, so each chunk is a range seek.
+   *
+   * @param tenantId tenant identifier
+   * @param category product category
+   * @param afterId  last id of the previous chunk, 0 for the first chunk
+   * @param limit    maximum number of ids to return
+   * @return product ids in ascending order
+   */
+  @Query("SELECT p.id FROM Product p WHERE p.tenantId = :tenantId AND p.category = :category"
+      + " AND p.id > :afterId ORDER BY p.id")
+  List<Long> findIdsByTenantIdAndCategoryAfter(@Param("tenantId") String tenantId,
+                                               @Param("category") String category,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+
+  /**
+   * Find the ids of the tenant's products with the given SKUs.
+   *
+   * @param tenantId tenant identifier
+   * @param skus     SKUs to look up
+   * @return ids of the matching products
+   */
+  @Query("SELECT p.id FROM Product p WHERE p.tenantId = :tenantId AND p.sku IN :skus")
+  List<Long> findIdsByTenantIdAndSkuIn(@Param("tenantId") String tenantId,
+                                       @Param("skus") Collection<String> skus);
+
+  /**
+   * Find the facet-relevant columns of the tenant's products with the given
+   * ids, read before a bulk statement changes or removes them so the facet
+   * counts can be adjusted.
+   *
+   * @param tenantId tenant identifier
+   * @param ids      product ids
+   * @return category and price of each matching product
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.ProductFacetRow(p.category, p.price)"
+      + " FROM Product p WHERE p.tenantId = :tenantId AND p.id IN :ids")
+  List<ProductFacetRow> findFacetRowsByTenantIdAndIdIn(@Param("tenantId") String tenantId,
+                                                       @Param("ids") Collection<Long> ids);
+
+  /**
+   * Multiply the price of the given products by a factor in one statement.
+   * Bulk statements bypass entity callbacks and versioning, so updatedAt and
+   * the version are maintained explicitly.
+   *
+   * @param tenantId  tenant identifier
+   * @param ids       ids of the products to reprice
+   * @param factor    price multiplier, e.g. 1.10 for +10%
+   * @param updatedAt modification timestamp to record
+   * @return number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE Product p SET p.price = ROUND(p.price * :factor, 2), p.updatedAt = :updatedAt,"
+      + " p.version = p.version + 1 WHERE p.tenantId = :tenantId AND p.id IN :ids")
+  int scalePriceByTenantIdAndIdIn(@Param("tenantId") String tenantId,
+                                  @Param("ids") Collection<Long> ids,
+                                  @Param("factor") BigDecimal factor,
+                                  @Param("updatedAt") LocalDateTime updatedAt);
+
+  /**
+   * Delete the feature rows of the given products in one statement.
+   *
+   * @param productIds ids of the products whose features are removed
+   * @return number of deleted feature rows
+   */
+  @Modifying
+  @Query(value = "DELETE FROM product_features WHERE product_id IN (:productIds)",
+      nativeQuery = true)
+  int deleteFeaturesByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+  /**
+   * Delete the given products of the tenant in one statement. Their feature
+   * rows must be removed first with {@link #deleteFeaturesByProductIdIn}.
+   *
+   * @param tenantId tenant identifier
+   * @param ids      ids of the products to delete
+   * @return number of deleted products
+   */
+  @Modifying
+  @Query("DELETE FROM Product p WHERE p.tenantId = :tenantId AND p.id IN :ids")
+  int deleteByTenantIdAndIdIn(@Param("tenantId") String tenantId,
+                              @Param("ids") Collection<Long> ids);
+
   /**
    * Find a product by its id and tenant id.
    *
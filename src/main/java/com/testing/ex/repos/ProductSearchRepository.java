@@ -0,0 +1,22 @@
+package com.testing.ex.repos;
+
+import java.util.List;
+
+/**
+ * Repository fragment for relevance-ranked full-text search over product
+ * names and descriptions.
+ */
+public interface ProductSearchRepository {
+
+  /**
+   * Find the ids of the tenant's products whose name or description contains
+   * every term (as a word prefix), most relevant first. Implementations may
+   * skip terms their index cannot hold, such as stopwords.
+   *
+   * @param tenantId tenant identifier
+   * @param terms    lower-case search terms without operators
+   * @param limit    maximum number of ids to return
+   * @return matching product ids ordered by descending relevance
+   */
+  List<Long> searchIds(String tenantId, List<String> terms, int limit);
+}
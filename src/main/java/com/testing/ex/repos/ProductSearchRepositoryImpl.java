@@ -0,0 +1,115 @@
+package com.testing.ex.repos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Default implementation of {@link ProductSearchRepository}.
+ *
+ * <p>On MySQL the search runs against the ft_products_name_description
+ * FULLTEXT index in boolean mode, so every term is required, terms match as
+ * word prefixes and results are ordered by the InnoDB relevance score. InnoDB
+ * does not index stopwords or words shorter than innodb_ft_min_token_size, so
+ * such terms are left out of the boolean query rather than required; a query
+ * made only of them falls back to the LIKE search. Other databases (H2 in
+ * tests) always use case-insensitive LIKE predicates, ranking products whose
+ * name contains the first term ahead of the rest.
+ *
+ * <p>The FULLTEXT index is not tenant-selective: MATCH is resolved over every
+ * tenant's rows before the tenant_id filter applies, so the cost of a search
+ * follows the number of matches across the whole table, not within the tenant.
+ */
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+  private static final String FULLTEXT_QUERY = "SELECT p.id FROM products p"
+      + " WHERE p.tenant_id = :tenantId"
+      + " AND MATCH(p.name, p.description) AGAINST (:query IN BOOLEAN MODE)"
+      + " ORDER BY MATCH(p.name, p.description) AGAINST (:query IN BOOLEAN MODE) DESC, p.id"
+      + " LIMIT :limit";
+
+  /**
+   * innodb_ft_min_token_size at its MySQL default; shorter words are not indexed.
+   */
+  static final int MIN_TOKEN_SIZE = 3;
+
+  /**
+   * INFORMATION_SCHEMA.INNODB_FT_DEFAULT_STOPWORD, the words InnoDB does not index.
+   */
+  static final Set<String> STOPWORDS = Set.of("a", "about", "an", "are", "as", "at", "be", "by",
+      "com", "de", "en", "for", "from", "how", "i", "in", "is", "it", "la", "of", "on", "or",
+      "that", "the", "this", "to", "was", "what", "when", "where", "who", "will", "with", "und",
+      "www");
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private volatile Boolean fullText;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Long> searchIds(String tenantId, List<String> terms, int limit) {
+    if (terms.isEmpty()) {
+      return List.of();
+    }
+    String booleanQuery = supportsFullText() ? booleanQuery(terms) : "";
+    if (!booleanQuery.isEmpty()) {
+      List<Number> ids = entityManager.createNativeQuery(FULLTEXT_QUERY)
+          .setParameter("tenantId", tenantId)
+          .setParameter("query", booleanQuery)
+          .setParameter("limit", limit)
+          .getResultList();
+      return ids.stream().map(Number::longValue).toList();
+    }
+    return likeSearch(tenantId, terms, limit);
+  }
+
+  /**
+   * Build the boolean-mode query requiring every term InnoDB can match.
+   *
+   * @param terms lower-case search terms without operators
+   * @return the query, or an empty string when no term is indexed
+   */
+  static String booleanQuery(List<String> terms) {
+    StringBuilder query = new StringBuilder();
+    for (String term : terms) {
+      if (term.length() >= MIN_TOKEN_SIZE && !STOPWORDS.contains(term)) {
+        query.append('+').append(term).append("* ");
+      }
+    }
+    return query.toString().trim();
+  }
+
+  private List<Long> likeSearch(String tenantId, List<String> terms, int limit) {
+    StringBuilder jpql =
+        new StringBuilder("SELECT p.id FROM Product p WHERE p.tenantId = :tenantId");
+    for (int i = 0; i < terms.size(); i++) {
+      jpql.append(" AND (LOWER(p.name) LIKE :t").append(i)
+          .append(" OR LOWER(p.description) LIKE :t").append(i).append(')');
+    }
+    jpql.append(" ORDER BY CASE WHEN LOWER(p.name) LIKE :t0 THEN 0 ELSE 1 END, p.id");
+    TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class)
+        .setParameter("tenantId", tenantId)
+        .setMaxResults(limit);
+    for (int i = 0; i < terms.size(); i++) {
+      query.setParameter("t" + i, "%" + terms.get(i) + "%");
+    }
+    return query.getResultList();
+  }
+
+  private boolean supportsFullText() {
+    Boolean result = fullText;
+    if (result == null) {
+      Dialect dialect = entityManager.getEntityManagerFactory()
+          .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+      result = dialect instanceof MySQLDialect;
+      fullText = result;
+    }
+    return result;
+  }
+}
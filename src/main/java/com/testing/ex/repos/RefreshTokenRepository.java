@@ -0,0 +1,62 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.domain.entity.RefreshToken;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for refresh tokens, looked up by the keyed hash of the token.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  /**
+   * Find a token and its user with one lookup on the unique hash index.
+   *
+   * @param tokenHash keyed hash of the presented token
+   * @return the token with its user, empty if unknown
+   */
+  @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+  Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+  /**
+   * Revoke a token unless it was already revoked. Two requests racing with
+   * the same token cannot both see a count of one.
+   *
+   * @param id  token id
+   * @param now revocation time
+   * @return 1 if this call revoked the token, 0 if it was revoked before
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.id = :id AND t.revokedAt IS NULL")
+  int revoke(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  /**
+   * Revoke every live token of a user, e.g. when a rotated token is replayed.
+   *
+   * @param userId user id
+   * @param now    revocation time
+   * @return number of tokens revoked
+   */
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.revokedAt = :now"
+      + " WHERE t.user.id = :userId AND t.revokedAt IS NULL")
+  int revokeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+  /**
+   * Delete a user's expired tokens; revoked ones are kept until they expire
+   * so that replaying them is still detected.
+   *
+   * @param userId user id
+   * @param now    current time
+   * @return number of tokens deleted
+   */
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId AND t.expiresAt < :now")
+  int deleteExpiredByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
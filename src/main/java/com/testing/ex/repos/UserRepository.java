@@ -1,8 +1,14 @@
 package com.testing.ex.repos;
 
+import com.testing.ex.domain.dto.projection.PasswordCostCount;
+import com.testing.ex.domain.dto.projection.UserIdentity;
 import com.testing.ex.domain.entity.User;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository for User persistence operations.
@@ -23,4 +29,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
    */
   Optional<User> findByEmail(String email);
 
+  /**
+   * Find the users holding the email or the username, in one query served by
+   * the two unique indexes.
+   *
+   * @param email    email to look for
+   * @param username username to look for
+   * @return the identities of at most two users
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.UserIdentity(u.id, u.email, u.username)"
+      + " FROM User u WHERE u.email = :email OR u.username = :username")
+  List<UserIdentity> findIdentitiesByEmailOrUsername(@Param("email") String email,
+                                                     @Param("username") String username);
+
+  /**
+   * Read a page of user identities in id order, after the given id.
+   *
+   * @param afterId  last id of the previous page, 0 for the first page
+   * @param pageable page size; the sort is fixed to id
+   * @return the next identities
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.UserIdentity(u.id, u.email, u.username)"
+      + " FROM User u WHERE u.id > :afterId ORDER BY u.id")
+  List<UserIdentity> findIdentitiesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+  /**
+   * Count stored BCrypt hashes per cost. Scans the users table.
+   *
+   * @return one row per cost in use
+   */
+  @Query("SELECT new com.testing.ex.domain.dto.projection.PasswordCostCount("
+      + "SUBSTRING(u.password, 5, 2), COUNT(u))"
+      + " FROM User u WHERE u.password LIKE '$2%'"
+      + " GROUP BY SUBSTRING(u.password, 5, 2)")
+  List<PasswordCostCount> countByPasswordCost();
+
 }
@@ -0,0 +1,139 @@
+package com.testing.ex.security;
+
+import com.testing.ex.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder that runs a CPU-heavy delegate (BCrypt) on a dedicated,
+ * fixed-size pool with a bounded queue, so a login or signup burst can only
+ * take the pool's threads' worth of CPU away from the rest of the API.
+ *
+ * <p>When the queue is full, or a caller's task has not finished within the
+ * maximum wait, the call fails with {@link ServiceOverloadedException}
+ * (503 with Retry-After) instead of piling up request threads. Published
+ * meters: {@code auth.password.queue.depth}, {@code auth.password.active},
+ * {@code auth.password.wait} (time queued), {@code auth.password.hash}
+ * (time hashing) and {@code auth.password.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final long maxWaitNanos;
+  private final Duration retryAfter;
+  private final Timer waitTimer;
+  private final Timer hashTimer;
+  private final Counter rejected;
+
+  /**
+   * Creates the encoder.
+   *
+   * @param delegate      the encoder doing the actual work
+   * @param threads       number of hashing threads
+   * @param queueCapacity number of calls that may wait for a thread
+   * @param maxWait       how long a caller waits for its result, queueing included
+   * @param retryAfter    the Retry-After advertised to rejected callers
+   * @param meterRegistry registry receiving the pool metrics
+   */
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                Duration maxWait, Duration retryAfter,
+                                MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.maxWaitNanos = maxWait.toNanos();
+    this.retryAfter = retryAfter;
+    this.waitTimer = Timer.builder("auth.password.wait")
+        .description("Time password hashing calls spent queued")
+        .register(meterRegistry);
+    this.hashTimer = Timer.builder("auth.password.hash")
+        .description("Time spent hashing or verifying a password")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("auth.password.rejected")
+        .description("Password hashing calls turned away because the pool was saturated")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+        .description("Password hashing calls waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Password hashing calls in progress")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  /**
+   * Stops the hashing threads; called when the application context closes.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T run(Callable<T> task) {
+    long submitted = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        long started = System.nanoTime();
+        waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+        try {
+          return task.call();
+        } finally {
+          hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      throw overloaded();
+    }
+    try {
+      return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      // Drops the task if it is still queued; a running hash finishes and is discarded.
+      future.cancel(false);
+      throw overloaded();
+    } catch (InterruptedException e) {
+      future.cancel(false);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private ServiceOverloadedException overloaded() {
+    rejected.increment();
+    return new ServiceOverloadedException(
+        "Too many concurrent sign-ins, please retry shortly", retryAfter);
+  }
+}
@@ -0,0 +1,105 @@
+package com.testing.ex.security;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost is either fixed or calibrated at startup to the
+ * one whose hashing time on this machine is closest to a target latency.
+ *
+ * <p>{@link #upgradeEncoding(String)} reports hashes whose cost differs from
+ * this encoder's by more than the tolerance, in either direction, so a
+ * successful login can re-hash the password at the node's cost. The tolerance
+ * keeps nodes that calibrate one step apart from rewriting each other's
+ * hashes on every login.
+ */
+@Slf4j
+@Getter
+public class CalibratedBcryptPasswordEncoder extends BCryptPasswordEncoder {
+
+  private static final int PROBE_COST = 10;
+  private static final int PROBE_ROUNDS = 3;
+
+  private final int cost;
+  private final int tolerance;
+
+  /**
+   * Creates an encoder with a fixed cost.
+   *
+   * @param cost      BCrypt log rounds (4..31)
+   * @param tolerance cost difference of stored hashes that is left alone
+   */
+  public CalibratedBcryptPasswordEncoder(int cost, int tolerance) {
+    super(cost);
+    this.cost = cost;
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Creates an encoder with the cost whose hashing time is closest to the
+   * target. Each cost step doubles the work, so the cost is extrapolated from
+   * the fastest of a few hashes at a probe cost.
+   *
+   * @param target    desired time to hash or verify one password
+   * @param minCost   lowest acceptable cost
+   * @param maxCost   highest acceptable cost
+   * @param tolerance cost difference of stored hashes that is left alone
+   * @return the calibrated encoder
+   */
+  public static CalibratedBcryptPasswordEncoder calibrated(Duration target, int minCost,
+                                                           int maxCost, int tolerance) {
+    long probeNanos = measure(PROBE_COST);
+    int cost = costFor(target.toNanos(), probeNanos, minCost, maxCost);
+    log.info("action=calibrateBcrypt probeCost={} probeMs={} targetMs={} cost={}", PROBE_COST,
+        probeNanos / 1_000_000, target.toMillis(), cost);
+    return new CalibratedBcryptPasswordEncoder(cost, tolerance);
+  }
+
+  /**
+   * Picks the cost whose extrapolated time is closest to the target, within bounds.
+   */
+  static int costFor(long targetNanos, long probeNanos, int minCost, int maxCost) {
+    double steps = Math.log((double) targetNanos / Math.max(1, probeNanos)) / Math.log(2);
+    int cost = PROBE_COST + (int) Math.round(steps);
+    return Math.max(minCost, Math.min(maxCost, cost));
+  }
+
+  private static long measure(int probeCost) {
+    BCryptPasswordEncoder probe = new BCryptPasswordEncoder(probeCost);
+    // Warm-up, so the measurement sees compiled code.
+    new BCryptPasswordEncoder(4).encode("calibration");
+    probe.encode("calibration");
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < PROBE_ROUNDS; i++) {
+      long started = System.nanoTime();
+      probe.encode("calibration");
+      best = Math.min(best, System.nanoTime() - started);
+    }
+    return best;
+  }
+
+  /**
+   * Reads the cost of a BCrypt hash such as {@code $2a$12$...}.
+   *
+   * @param encodedPassword the stored hash
+   * @return the cost, or -1 if the value is not a BCrypt hash
+   */
+  public static int costOf(String encodedPassword) {
+    if (encodedPassword == null || encodedPassword.length() < 7
+        || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(1) != '2'
+        || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$'
+        || !Character.isDigit(encodedPassword.charAt(4))
+        || !Character.isDigit(encodedPassword.charAt(5))) {
+      return -1;
+    }
+    return Integer.parseInt(encodedPassword, 4, 6, 10);
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    int stored = costOf(encodedPassword);
+    return stored >= 0 && Math.abs(stored - cost) > tolerance;
+  }
+}
@@ -0,0 +1,129 @@
+package com.testing.ex.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Verifier for the compact HS256 tokens issued by
+ * {@link com.testing.ex.service.impl.JwtServiceImpl#generateToken}.
+ *
+ * <p>Only the exact header the service issues is accepted, so the header is
+ * compared as text instead of being parsed. Length, segment structure and
+ * alphabet are checked and the HMAC is verified over the raw bytes before any
+ * JSON is touched; the payload of a token that fails is never decoded.
+ * Rejections are reported as {@code null} rather than exceptions, so garbage
+ * tokens cost no stack traces.
+ */
+public final class Hs256TokenVerifier {
+
+  /**
+   * Longest token considered; anything longer is rejected unread.
+   */
+  static final int MAX_TOKEN_LENGTH = 4096;
+
+  private static final String HEADER =
+      Base64.getUrlEncoder().withoutPadding().encodeToString(
+          "{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+  private static final int SIGNATURE_LENGTH = 43;
+  private static final ObjectReader PAYLOAD_READER = new ObjectMapper().readerFor(Map.class);
+
+  private final ThreadLocal<Mac> macs;
+
+  /**
+   * Creates the verifier.
+   *
+   * @param key the HMAC-SHA256 signing key
+   */
+  public Hs256TokenVerifier(SecretKey key) {
+    this.macs = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 is not available", e);
+      }
+    });
+  }
+
+  /**
+   * Verifies the token and returns its claims.
+   *
+   * @param token compact JWS
+   * @return the claims, or {@code null} if the token is malformed, forged,
+   *     expired or has no expiration
+   */
+  public Claims verify(String token) {
+    if (!isWellFormed(token)) {
+      return null;
+    }
+    int signatureDot = token.length() - SIGNATURE_LENGTH - 1;
+    byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+    Mac mac = macs.get();
+    mac.update(bytes, 0, signatureDot);
+    byte[] expected = mac.doFinal();
+    byte[] actual = Base64.getUrlDecoder().decode(token.substring(signatureDot + 1));
+    if (!MessageDigest.isEqual(expected, actual)) {
+      return null;
+    }
+
+    Claims claims;
+    Date expiration;
+    try {
+      Map<String, Object> payload = PAYLOAD_READER.readValue(Base64.getUrlDecoder()
+          .decode(token.substring(HEADER.length() + 1, signatureDot)));
+      claims = Jwts.claims(payload);
+      expiration = claims.getExpiration();
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+    if (expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+      return null;
+    }
+    return claims;
+  }
+
+  /**
+   * Checks length, header, segment structure and alphabet only; a token
+   * failing this can be rejected without hashing or verifying it.
+   *
+   * @param token compact JWS
+   * @return whether the token could be one this service issued
+   */
+  public static boolean isWellFormed(String token) {
+    int length = token.length();
+    if (length > MAX_TOKEN_LENGTH || length < HEADER.length() + 2 + SIGNATURE_LENGTH
+        || !token.startsWith(HEADER) || token.charAt(HEADER.length()) != '.') {
+      return false;
+    }
+    int signatureDot = length - SIGNATURE_LENGTH - 1;
+    return token.charAt(signatureDot) == '.'
+        && isBase64Url(token, HEADER.length() + 1, signatureDot)
+        && isBase64Url(token, signatureDot + 1, length);
+  }
+
+  private static boolean isBase64Url(String value, int from, int to) {
+    if (from == to || (to - from) % 4 == 1) {
+      return false;
+    }
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+          || c == '-' || c == '_')) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -8,7 +8,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,13 +24,19 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 /**
  * Security filter that validates JWT tokens on incoming requests. If a valid
  * token is present the filter loads UserDetails and sets the Spring Security
- * context. Additionally, when the underlying UserDetails implementation is
+ * context; an invalid or expired token is answered with 401 directly.
+ * Additionally, when the underlying UserDetails implementation is
  * {@link TestingUserDetails} the filter writes the user's id into the
  * request attribute "userId" for tenant-aware controllers.
  */
 @RequiredArgsConstructor
 public class JwtSecurityFilter extends OncePerRequestFilter {
 
+  private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+  private static final byte[] INVALID_TOKEN_BODY =
+      "{\"status\":401,\"message\":\"Invalid or expired token\"}"
+          .getBytes(StandardCharsets.US_ASCII);
+
   public final UserDetailsService userDetailsService;
   private final JwtService jwtService;
   private final HandlerExceptionResolver exceptionResolver;
@@ -43,13 +52,18 @@ public class JwtSecurityFilter extends OncePerRequestFilter {
         return;
       }
 
-      Claims claims = jwtService.extractAllClaims(token);
+      // Signature and expiration are checked once here; repeat tokens hit the claims cache.
+      Claims claims = jwtService.verifyToken(token);
+      if (claims == null) {
+        rejectToken(response);
+        return;
+      }
       String email = claims.getSubject();
       Long userId = claims.get("userId", Long.class);
       String username = claims.get("username", String.class);
       boolean enabled = claims.get("enabled", Boolean.class);
 
-      if(email == null || !jwtService.validateToken(token)) {
+      if (email == null) {
         filterChain.doFilter(request, response);
         return;
       }
@@ -91,6 +105,18 @@ public class JwtSecurityFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  /**
+   * Answers a request carrying an invalid token with 401 from preallocated
+   * bytes, bypassing exception resolution and error body rendering.
+   */
+  private static void rejectToken(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(INVALID_TOKEN_BODY.length);
+    response.getOutputStream().write(INVALID_TOKEN_BODY);
+  }
+
   private String extractToken(HttpServletRequest request) {
     String authHeader = request.getHeader("Authorization");
 
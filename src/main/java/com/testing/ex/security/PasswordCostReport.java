@@ -0,0 +1,74 @@
+package com.testing.ex.security;
+
+import com.testing.ex.domain.dto.projection.PasswordCostCount;
+import com.testing.ex.repos.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+/**
+ * Reports how many stored password hashes use each BCrypt cost, next to the
+ * cost this node hashes with, so the progress of rehash-on-login can be
+ * followed. The distribution is read once the application is ready and
+ * whenever {@link #report()} is called; it is published as the gauge
+ * {@code auth.password.cost.users} tagged by {@code cost}, and the node's
+ * cost as {@code auth.password.cost.target}.
+ */
+@Slf4j
+@Component
+public class PasswordCostReport {
+
+  private final UserRepository userRepository;
+  private final CalibratedBcryptPasswordEncoder encoder;
+  private final MultiGauge usersByCost;
+
+  /**
+   * Creates the report.
+   *
+   * @param userRepository repository of the stored hashes
+   * @param encoder        the BCrypt encoder whose cost is the target
+   * @param meterRegistry  registry receiving the gauges
+   */
+  public PasswordCostReport(UserRepository userRepository,
+                            CalibratedBcryptPasswordEncoder encoder,
+                            MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    this.encoder = encoder;
+    this.usersByCost = MultiGauge.builder("auth.password.cost.users")
+        .description("Stored password hashes per BCrypt cost")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.cost.target", encoder, CalibratedBcryptPasswordEncoder::getCost)
+        .description("BCrypt cost new hashes are made with")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reads the cost distribution of stored hashes, logs it and updates the gauges.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void report() {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      List<PasswordCostCount> counts = userRepository.countByPasswordCost();
+      usersByCost.register(counts.stream()
+          .map(count -> MultiGauge.Row.of(Tags.of("cost", count.cost()), count.users()))
+          .toList(), true);
+      sw.stop();
+      log.info("action=passwordCostReport targetCost={} distribution={} durationMs={}",
+          encoder.getCost(), counts, sw.getTotalTimeMillis());
+    } catch (Exception e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.error("action=passwordCostReport error={}", e.getMessage(), e);
+    }
+  }
+}
@@ -16,6 +16,16 @@ public interface JwtService {
    */
   String generateToken(UserDetails userDetails);
 
+  /**
+   * Verify the token's signature and expiration and return its claims.
+   * Tokens verified before are answered from a cache until they expire.
+   *
+   * @param token JWT token
+   * @return the verified, unexpired claims, or {@code null} if the token is
+   *     malformed, forged or expired
+   */
+  Claims verifyToken(String token);
+
   /**
    * Extract username (subject) from the token.
    *
@@ -1,11 +1,21 @@
 package com.testing.ex.service;
 
+import com.testing.ex.domain.dto.projection.ProductListingVersion;
 import com.testing.ex.domain.dto.request.CreateProductRequest;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
 import com.testing.ex.domain.dto.request.UpdateProductRequest;
+import com.testing.ex.domain.dto.response.CursorPageResponse;
+import com.testing.ex.domain.dto.response.ProductBatchResponse;
+import com.testing.ex.domain.dto.response.ProductFacetsResponse;
 import com.testing.ex.domain.dto.response.ProductResponse;
 import com.testing.ex.domain.entity.Product;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Service layer contract for product related operations. Methods are tenant-
@@ -21,6 +31,99 @@ public interface ProductService {
    */
   Page<ProductResponse> getAllByUserId(String userId, Pageable pageable);
 
+  /**
+   * Get paginated products for the given tenant (user) that have every one
+   * of the given feature values.
+   *
+   * @param userId   tenant/user identifier
+   * @param features required feature values keyed by feature key; empty for no filter
+   * @param pageable pagination and sort information
+   * @return page of {@link ProductResponse}
+   */
+  Page<ProductResponse> getAllByUserIdAndFeatures(String userId, Map<String, String> features,
+                                                  Pageable pageable);
+
+  /**
+   * Get paginated products for the given tenant (user) restricted by
+   * category, price range and creation time range.
+   *
+   * @param userId   tenant/user identifier
+   * @param filter   restrictions; null fields do not restrict
+   * @param pageable pagination and a single sort order by an indexed property
+   * @return page of {@link ProductResponse}
+   */
+  Page<ProductResponse> getAllByUserIdAndFilter(String userId, ProductListingFilter filter,
+                                                Pageable pageable);
+
+  /**
+   * Get a slice of products for the given tenant without computing the total
+   * number of products.
+   *
+   * @param userId   tenant/user identifier
+   * @param pageable pagination and sort information
+   * @return slice of {@link ProductResponse}
+   */
+  Slice<ProductResponse> getSliceByUserId(String userId, Pageable pageable);
+
+  /**
+   * Get the total number of products owned by the given tenant from the
+   * maintained counter.
+   *
+   * @param userId tenant/user identifier
+   * @return number of products
+   */
+  long countByUserId(String userId);
+
+  /**
+   * Get the fingerprint of the tenant's catalog (count and catalog version)
+   * without loading any product.
+   *
+   * @param userId tenant/user identifier
+   * @return the catalog version
+   */
+  ProductListingVersion getListingVersion(String userId);
+
+  /**
+   * Get the version counter of a single product without loading it.
+   *
+   * @param productId product numeric id
+   * @param userId    tenant identifier
+   * @return the product's version
+   */
+  long getProductVersion(Long productId, String userId);
+
+  /**
+   * Get a keyset (cursor) paginated page of products for the given tenant,
+   * newest first. Cost is independent of how deep the client has paged.
+   *
+   * @param userId tenant/user identifier
+   * @param cursor continuation token from the previous page, or null for the first page
+   * @param size   maximum number of items to return
+   * @return page of {@link ProductResponse} with the token for the next page
+   */
+  CursorPageResponse<ProductResponse> getAllByUserIdAfter(String userId, String cursor, int size);
+
+  /**
+   * Search the tenant's products by name and description, most relevant
+   * first. Every word of the query must match, as a word prefix.
+   *
+   * @param userId tenant/user identifier
+   * @param query  free-text query
+   * @param limit  maximum number of products to return
+   * @return matching products ordered by relevance
+   */
+  List<ProductResponse> searchByUserId(String userId, String query, int limit);
+
+  /**
+   * Stream every product of the given tenant to the sink, oldest first,
+   * without holding more than one product in memory at a time.
+   *
+   * @param userId tenant/user identifier
+   * @param sink   receives each product in turn
+   * @return number of products exported
+   */
+  long exportByUserId(String userId, Consumer<ProductResponse> sink);
+
   /**
    * Create a new product for the specified tenant.
    *
@@ -30,6 +133,17 @@ public interface ProductService {
    */
   ProductResponse createProduct(String userId, CreateProductRequest request);
 
+  /**
+   * Create many products for the specified tenant in one transaction. Items
+   * that fail validation or reuse an existing SKU are rejected individually;
+   * the others are inserted with JDBC batching.
+   *
+   * @param userId   tenant identifier
+   * @param requests create payloads
+   * @return per-item results in request order
+   */
+  ProductBatchResponse createProducts(String userId, List<CreateProductRequest> requests);
+
   /**
    * Update an existing product owned by the tenant.
    *
@@ -40,6 +154,44 @@ public interface ProductService {
    */
   ProductResponse updateProduct(String userId, Long productId, UpdateProductRequest request);
 
+  /**
+   * Change the price of every product of a category owned by the tenant by
+   * a percentage, using set-based updates.
+   *
+   * @param userId   tenant identifier
+   * @param category category to reprice
+   * @param percent  change in percent, e.g. 10 or -15
+   * @return number of repriced products
+   */
+  long changePriceByCategory(String userId, String category, BigDecimal percent);
+
+  /**
+   * Delete the tenant's products with the given SKUs using set-based deletes.
+   *
+   * @param userId tenant identifier
+   * @param skus   SKUs to delete
+   * @return number of deleted products
+   */
+  long deleteBySkus(String userId, List<String> skus);
+
+  /**
+   * Get the tenant's product counts per category and price band from the
+   * maintained facet table.
+   *
+   * @param userId tenant identifier
+   * @return facet counts
+   */
+  ProductFacetsResponse getFacetsByUserId(String userId);
+
+  /**
+   * Recompute the tenant's facet counts from the products table, repairing
+   * any drift of the incrementally maintained counts.
+   *
+   * @param userId tenant identifier
+   * @return the recomputed facet counts
+   */
+  ProductFacetsResponse rebuildFacets(String userId);
+
   /**
    * Delete a product owned by the tenant.
    *
@@ -48,6 +200,16 @@ public interface ProductService {
    */
   void deleteProduct(String userId, Long productId);
 
+  /**
+   * Fetch a product by id and user/tenant id as a read-only projection. Does
+   * not load a managed entity into the persistence context.
+   *
+   * @param productId product numeric id
+   * @param userId    tenant identifier
+   * @return the {@link ProductResponse}
+   */
+  ProductResponse getProductByIdAndUserId(Long productId, String userId);
+
   /**
    * Fetch a product entity by id and user/tenant id (used when encryption or
    * full entity is needed).
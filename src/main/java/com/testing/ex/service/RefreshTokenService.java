@@ -0,0 +1,30 @@
+package com.testing.ex.service;
+
+import com.testing.ex.domain.dto.response.LoginResponse;
+import com.testing.ex.domain.entity.User;
+
+/**
+ * Service contract for the rotating refresh tokens that renew access tokens
+ * without re-entering (and re-hashing) the password.
+ */
+public interface RefreshTokenService {
+  /**
+   * Issue a new refresh token for a user who has just authenticated.
+   *
+   * @param user the authenticated user
+   * @return the opaque token to hand to the client; only its hash is stored
+   */
+  String issue(User user);
+
+  /**
+   * Exchange a refresh token for a new access token and a successor refresh
+   * token. The presented token is revoked; presenting it again revokes every
+   * token of the user.
+   *
+   * @param refreshToken the token issued by {@link #issue(User)} or a previous refresh
+   * @return the new access token, its expiration and the successor refresh token
+   * @throws org.springframework.security.authentication.BadCredentialsException when the
+   *     token is unknown, expired, already used or belongs to a disabled user
+   */
+  LoginResponse refresh(String refreshToken);
+}
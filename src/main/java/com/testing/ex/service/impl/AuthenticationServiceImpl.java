@@ -1,21 +1,25 @@
 package com.testing.ex.service.impl;
 
+import com.testing.ex.cache.TakenIdentityFilter;
+import com.testing.ex.domain.dto.projection.UserIdentity;
 import com.testing.ex.domain.dto.request.LoginUserDto;
 import com.testing.ex.domain.dto.request.RegisterUserDto;
 import com.testing.ex.domain.dto.request.VerifyUserDto;
 import com.testing.ex.domain.entity.User;
+import com.testing.ex.exception.ConflictException;
+import com.testing.ex.exception.ServiceOverloadedException;
 import com.testing.ex.repos.UserRepository;
+import com.testing.ex.security.TestingUserDetails;
 import com.testing.ex.service.AuthenticationService;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
 
@@ -32,17 +36,20 @@ import org.springframework.util.StopWatch;
 public class AuthenticationServiceImpl implements AuthenticationService {
 
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder encoder;
-  private final AuthenticationManager authenticationManager;
-  private final UserDetailsService userDetailsService;
+  private final PasswordEncoder encoder;
+  private final TakenIdentityFilter identityFilter;
 
   /**
    * Registers a new user account. The returned user will have enabled=false
    * and will contain a verification code with a short expiry.
    *
+   * <p>The email and username are only looked up when the identity filter
+   * says either may be taken, and then in one query. The unique constraints
+   * still decide races and values the filter has not seen.
+   *
    * @param request registration details (email, username, password)
    * @return the saved User entity
-   * @throws IllegalArgumentException when email or username already exists
+   * @throws ConflictException when email or username already exists
    */
   @Override
   public User signup(RegisterUserDto request) {
@@ -52,12 +59,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     try {
       log.debug("action=signup email={} username={}", request.getEmail(), request.getUsername());
 
-      if (userRepository.existsByEmail(request.getEmail())) {
-        throw new IllegalArgumentException("Email already in use");
-      }
-
-      if (userRepository.existsByUsername(request.getUsername())) {
-        throw new IllegalArgumentException("Username already in use");
+      if (identityFilter.mightBeTaken(request.getEmail(), request.getUsername())) {
+        List<UserIdentity> taken = userRepository.findIdentitiesByEmailOrUsername(
+            request.getEmail(), request.getUsername());
+        for (UserIdentity identity : taken) {
+          if (identity.email().equalsIgnoreCase(request.getEmail())) {
+            throw new ConflictException("Email already in use");
+          }
+        }
+        if (!taken.isEmpty()) {
+          throw new ConflictException("Username already in use");
+        }
       }
 
       User user = User.builder()
@@ -69,14 +81,26 @@ public class AuthenticationServiceImpl implements AuthenticationService {
           .verificationCodeExpiry(LocalDateTime.now().plusMinutes(15))
           .build();
 
-      User saved = userRepository.save(user);
+      User saved;
+      try {
+        saved = userRepository.save(user);
+      } catch (DataIntegrityViolationException e) {
+        throw new ConflictException("Email or username already in use", e);
+      }
+      identityFilter.add(request.getEmail(), request.getUsername());
 
       sw.stop();
       Long userId = saved != null ? saved.getId() : null;
       log.info("action=signup email={} userId={} durationMs={}", request.getEmail(), userId,
           sw.getTotalTimeMillis());
       return saved;
-    } catch (IllegalArgumentException e) {
+    } catch (ConflictException e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.warn("action=signup email={} error={}", request.getEmail(), e.getMessage());
+      throw e;
+    } catch (ServiceOverloadedException e) {
       if (sw.isRunning()) {
         sw.stop();
       }
@@ -95,6 +119,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
    * Authenticates a user with email and password. The returned UserDetails
    * can be used to create a session or JWT.
    *
+   * <p>The user row is loaded once and the password verified once against it;
+   * the same entity backs the returned UserDetails, so a login costs one
+   * {@code users} query (plus an update when the hash is re-encoded).
+   *
    * @param request login credentials (email, password)
    * @return authenticated UserDetails
    * @throws IllegalArgumentException when the email is invalid or user not verified
@@ -115,16 +143,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         throw new IllegalArgumentException("Email not verified");
       }
 
-      authenticationManager.authenticate(
-          new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-      );
+      if (!encoder.matches(request.getPassword(), existingUser.getPassword())) {
+        throw new BadCredentialsException("Bad credentials");
+      }
+
+      rehashIfNeeded(existingUser, request.getPassword());
 
-      UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
+      UserDetails userDetails = new TestingUserDetails(existingUser);
 
       sw.stop();
-      String username = userDetails != null ? userDetails.getUsername() : null;
-      log.info("action=authenticate email={} username={} durationMs={}", request.getEmail(),
-          username, sw.getTotalTimeMillis());
+      log.info("action=authenticate email={} userId={} durationMs={}", request.getEmail(),
+          existingUser.getId(), sw.getTotalTimeMillis());
       return userDetails;
     } catch (BadCredentialsException e) {
       if (sw.isRunning()) {
@@ -138,6 +167,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
       }
       log.warn("action=authenticate email={} error={}", request.getEmail(), e.getMessage());
       throw e;
+    } catch (ServiceOverloadedException e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.warn("action=authenticate email={} error={}", request.getEmail(), e.getMessage());
+      throw e;
     } catch (Exception e) {
       if (sw.isRunning()) {
         sw.stop();
@@ -207,6 +242,28 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
   }
 
+  /**
+   * Re-hashes the password at the encoder's current cost when the stored hash
+   * was made with a noticeably different one. Only called after the password
+   * was verified. A saturated hashing pool skips the re-hash; the next login
+   * tries again.
+   *
+   * @param user        the authenticated user
+   * @param rawPassword the verified password
+   */
+  private void rehashIfNeeded(User user, String rawPassword) {
+    if (!encoder.upgradeEncoding(user.getPassword())) {
+      return;
+    }
+    try {
+      user.setPassword(encoder.encode(rawPassword));
+      userRepository.save(user);
+      log.info("action=rehashPassword userId={}", user.getId());
+    } catch (ServiceOverloadedException e) {
+      log.warn("action=rehashPassword userId={} error={}", user.getId(), e.getMessage());
+    }
+  }
+
   /**
    * Generates a random 6-digit verification code as a string.
    *
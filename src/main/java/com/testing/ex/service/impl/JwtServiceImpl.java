@@ -1,12 +1,24 @@
 package com.testing.ex.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.testing.ex.security.Hs256TokenVerifier;
 import com.testing.ex.security.TestingUserDetails;
 import com.testing.ex.service.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,15 +30,54 @@ import org.springframework.stereotype.Service;
 
 /**
  * Implementation of JwtService for generating and validating JWT tokens.
+ *
+ * <p>The signing key and verifier are built once. Tokens are checked by
+ * {@link Hs256TokenVerifier}, which rejects malformed and forged tokens on
+ * their raw bytes before parsing any JSON. Verified claims are kept in a
+ * bounded cache keyed by the SHA-256 of the token, and each entry expires at
+ * the token's own expiration, so a token seen before is authenticated with a
+ * hash and a lookup instead of a parse and HMAC check. Cache metrics are
+ * published under the {@code cache.*} meters with tag {@code cache=jwt-claims}.
  */
 @Service
 public class JwtServiceImpl implements JwtService {
 
-  @Value("${security.jwt.secret}")
-  private String secretKey;
+  private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  });
 
-  @Value("${security.jwt.expiration}")
-  private long jwtExpiration;
+  private final long jwtExpiration;
+  private final SecretKey signingKey;
+  private final Hs256TokenVerifier verifier;
+  private final Cache<String, Claims> verifiedClaims;
+
+  /**
+   * Creates the service.
+   *
+   * @param secretKey     Base64 encoded HMAC-SHA256 key
+   * @param jwtExpiration token lifetime in milliseconds
+   * @param cacheMaxSize  maximum number of verified tokens kept
+   * @param meterRegistry registry receiving the cache metrics
+   */
+  public JwtServiceImpl(
+      @Value("${security.jwt.secret}") String secretKey,
+      @Value("${security.jwt.expiration}") long jwtExpiration,
+      @Value("${security.jwt.cache.max-size:10000}") long cacheMaxSize,
+      MeterRegistry meterRegistry) {
+    this.jwtExpiration = jwtExpiration;
+    this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    this.verifier = new Hs256TokenVerifier(signingKey);
+    this.verifiedClaims = Caffeine.newBuilder()
+        .maximumSize(cacheMaxSize)
+        .expireAfter(Expiry.creating((String key, Claims claims) -> remainingLifetime(claims)))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt-claims");
+  }
 
   /**
    * Generate a JWT token containing claims for the provided user.
@@ -48,16 +99,33 @@ public class JwtServiceImpl implements JwtService {
         .setSubject(userDetails.getUsername())
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-        .signWith(getSigninKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
   /**
-   * Get signing key from the configured secret.
+   * Verify the token and return its claims, parsing it only on the first
+   * sighting.
+   *
+   * @param token JWT token
+   * @return the verified, unexpired claims, or {@code null} if the token is
+   *     malformed, forged or expired
    */
-  private SecretKey getSigninKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+  @Override
+  public Claims verifyToken(String token) {
+    if (!Hs256TokenVerifier.isWellFormed(token)) {
+      return null;
+    }
+    String key = hash(token);
+    Claims claims = verifiedClaims.getIfPresent(key);
+    if (claims != null && remainingLifetime(claims).isPositive()) {
+      return claims;
+    }
+    claims = verifier.verify(token);
+    if (claims != null) {
+      verifiedClaims.put(key, claims);
+    }
+    return claims;
   }
 
   /**
@@ -81,13 +149,15 @@ public class JwtServiceImpl implements JwtService {
 
   /**
    * Extract all claims from the token.
+   *
+   * @throws JwtException if the token is malformed, forged or expired
    */
   public Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigninKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    Claims claims = verifyToken(token);
+    if (claims == null) {
+      throw new JwtException("Invalid or expired token");
+    }
+    return claims;
   }
 
   /**
@@ -98,21 +168,7 @@ public class JwtServiceImpl implements JwtService {
    */
   @Override
   public boolean validateToken(String token) {
-    return !isTokenExpired(token);
-  }
-
-  /**
-   * Check if the token is expired.
-   */
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
-  }
-
-  /**
-   * Extract expiration date from the token.
-   */
-  private Date extractExpiration(String token) {
-    return extractClaims(token, Claims::getExpiration);
+    return verifyToken(token) != null;
   }
 
   /**
@@ -122,4 +178,16 @@ public class JwtServiceImpl implements JwtService {
   public long getExpirationTime() {
     return jwtExpiration;
   }
+
+  private static Duration remainingLifetime(Claims claims) {
+    Date expiration = claims.getExpiration();
+    return expiration == null
+        ? Duration.ZERO
+        : Duration.ofMillis(expiration.getTime() - System.currentTimeMillis());
+  }
+
+  private static String hash(String token) {
+    byte[] digest = DIGESTS.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    return Base64.getEncoder().withoutPadding().encodeToString(digest);
+  }
 }
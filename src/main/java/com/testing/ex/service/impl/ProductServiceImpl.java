@@ -1,18 +1,62 @@
 package com.testing.ex.service.impl;
 
+import com.testing.ex.cache.ProductResponseCache;
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.ProductSortKey;
+import com.testing.ex.domain.dto.projection.ProductExportRow;
+import com.testing.ex.domain.dto.projection.ProductFacetCount;
+import com.testing.ex.domain.dto.projection.ProductFacetRow;
+import com.testing.ex.domain.dto.projection.ProductFeatureRow;
+import com.testing.ex.domain.dto.projection.ProductListingVersion;
+import com.testing.ex.domain.dto.projection.ProductRow;
 import com.testing.ex.domain.dto.request.CreateProductRequest;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
 import com.testing.ex.domain.dto.request.UpdateProductRequest;
+import com.testing.ex.domain.dto.response.CursorPageResponse;
+import com.testing.ex.domain.dto.response.FacetCount;
 import com.testing.ex.domain.dto.response.FeatureResponse;
+import com.testing.ex.domain.dto.response.ProductBatchItemResult;
+import com.testing.ex.domain.dto.response.ProductBatchResponse;
+import com.testing.ex.domain.dto.response.ProductFacetsResponse;
 import com.testing.ex.domain.dto.response.ProductResponse;
 import com.testing.ex.domain.entity.Product;
+import com.testing.ex.domain.entity.ProductFacet;
+import com.testing.ex.exception.BadRequestException;
+import com.testing.ex.repos.ProductCounterRepository;
+import com.testing.ex.repos.ProductFacetRepository;
 import com.testing.ex.repos.ProductRepository;
 import com.testing.ex.service.ProductService;
+import com.testing.ex.utils.CursorCodec;
+import com.testing.ex.utils.PriceBands;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StopWatch;
@@ -25,7 +69,46 @@ import org.springframework.util.StopWatch;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+  /**
+   * Upper bound of items accepted by a single bulk request.
+   */
+  static final int MAX_BATCH_ITEMS = 5000;
+
+  /**
+   * Number of values per IN list (and rows per bulk statement), which keeps
+   * statements, lock sets and undo per statement bounded.
+   */
+  static final int IN_LIST_CHUNK = 1000;
+
+  /**
+   * Upper bound of results returned by a single search.
+   */
+  static final int MAX_SEARCH_RESULTS = 100;
+
+  /**
+   * Upper bound of words of a search query; further words are ignored.
+   */
+  private static final int MAX_SEARCH_TERMS = 10;
+
+  /**
+   * Upper bound of feature predicates of a single listing.
+   */
+  static final int MAX_FEATURE_FILTERS = 10;
+
+  /**
+   * Order in which facet buckets are adjusted. A fixed order makes concurrent
+   * writers lock the shared facet rows in the same sequence, so they queue
+   * instead of deadlocking.
+   */
+  private static final Comparator<ProductFacet.Key> FACET_ORDER =
+      Comparator.comparing(ProductFacet.Key::getFacet).thenComparing(ProductFacet.Key::getBucket);
+
   private final ProductRepository productRepository;
+  private final ProductCounterRepository productCounterRepository;
+  private final ProductFacetRepository productFacetRepository;
+  private final ProductResponseCache productResponseCache;
+  private final Validator validator;
+  private final ProductFeatureStorage featureStorage;
 
   /**
    * Retrieves all products associated with a specific user.
@@ -39,8 +122,13 @@ public class ProductServiceImpl implements ProductService {
     StopWatch sw = new StopWatch();
     sw.start();
     try {
-      Page<Product> page = productRepository.findAllByTenantId(userId, pageable);
-      Page<ProductResponse> result = page.map((Product p) -> toResponse(p));
+      Page<ProductResponse> result = productResponseCache.get(userId, "page:" + shape(pageable),
+          () -> {
+            Page<ProductRow> page = productRepository.findRowsByTenantId(userId, pageable);
+            Map<Long, Map<String, String>> features = loadFeatures(page.getContent());
+            return page.map((ProductRow row) ->
+                row.toResponse(features.getOrDefault(row.id(), Map.of())));
+          });
 
       sw.stop();
       log.info("action=getAllProducts userId={} productCount={} durationMs={}",
@@ -54,6 +142,342 @@ public class ProductServiceImpl implements ProductService {
     }
   }
 
+  /**
+   * Retrieves the products of a specific user that have every one of the
+   * given feature values. The filter is planned by the repository (most
+   * selective predicate first); the page of ids it returns is hydrated with
+   * one row query and one batched feature query.
+   *
+   * @param userId   The ID of the user whose products are to be retrieved.
+   * @param features The required feature values keyed by feature key.
+   * @param pageable The pagination and sort information.
+   * @return A page of ProductResponse representing the matching products.
+   * @throws BadRequestException if too many filters are given.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Page<ProductResponse> getAllByUserIdAndFeatures(String userId,
+                                                         Map<String, String> features,
+                                                         Pageable pageable) {
+    if (features.isEmpty()) {
+      return getAllByUserId(userId, pageable);
+    }
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      if (features.size() > MAX_FEATURE_FILTERS) {
+        throw new BadRequestException("At most " + MAX_FEATURE_FILTERS
+            + " feature filters are supported");
+      }
+      Map<String, String> filters = new TreeMap<>(features);
+      Page<ProductResponse> result = productResponseCache.get(userId,
+          "features:" + filters + ":" + shape(pageable), () -> {
+            Page<Long> ids = productRepository.findIdsByTenantIdAndFeatures(userId, filters,
+                pageable);
+            return new PageImpl<>(loadInOrder(userId, ids.getContent()), pageable,
+                ids.getTotalElements());
+          });
+
+      sw.stop();
+      log.info("action=getProductsByFeatures userId={} filters={} productCount={} durationMs={}",
+          userId, filters.size(), result.getTotalElements(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=getProductsByFeatures userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Retrieves the products of a specific user restricted by category, price
+   * range and creation time range. Only sort keys that an index keeps in
+   * order for the given filter are accepted, so a listing never sorts the
+   * tenant's catalog; the page of ids is hydrated like a feature listing.
+   *
+   * @param userId   The ID of the user whose products are to be retrieved.
+   * @param filter   The restrictions; null fields do not restrict.
+   * @param pageable The pagination and a single sort order.
+   * @return A page of ProductResponse representing the matching products.
+   * @throws BadRequestException if a range is inverted or the sort is not index-backed.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Page<ProductResponse> getAllByUserIdAndFilter(String userId, ProductListingFilter filter,
+                                                       Pageable pageable) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      if (filter.minPrice() != null && filter.maxPrice() != null
+          && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+        throw new BadRequestException("minPrice must not be greater than maxPrice");
+      }
+      if (filter.createdFrom() != null && filter.createdTo() != null
+          && filter.createdFrom().isAfter(filter.createdTo())) {
+        throw new BadRequestException("createdFrom must not be after createdTo");
+      }
+      List<Sort.Order> orders = pageable.getSort().toList();
+      if (orders.size() > 1) {
+        throw new BadRequestException("Listings can be sorted by one property only");
+      }
+      for (Sort.Order order : orders) {
+        ProductSortKey.forListing(order.getProperty(), filter);
+      }
+
+      Page<ProductResponse> result = productResponseCache.get(userId,
+          "filter:" + filter + ":" + shape(pageable), () -> {
+            Page<Long> ids = productRepository.findIdsByTenantIdAndFilter(userId, filter,
+                pageable);
+            return new PageImpl<>(loadInOrder(userId, ids.getContent()), pageable,
+                ids.getTotalElements());
+          });
+
+      sw.stop();
+      log.info("action=getProductsByFilter userId={} filter={} productCount={} durationMs={}",
+          userId, filter, result.getTotalElements(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=getProductsByFilter userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Retrieves a slice of products associated with a specific user. Skips the
+   * COUNT query that a full page requires.
+   *
+   * @param userId   The ID of the user whose products are to be retrieved.
+   * @param pageable The pagination and sort information.
+   * @return A slice of ProductResponse representing the user's products.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<ProductResponse> getSliceByUserId(String userId, Pageable pageable) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      Slice<ProductResponse> result = productResponseCache.get(userId, "slice:" + shape(pageable),
+          () -> {
+            Slice<ProductRow> slice = productRepository.findRowSliceByTenantId(userId, pageable);
+            Map<Long, Map<String, String>> features = loadFeatures(slice.getContent());
+            return slice.map((ProductRow row) ->
+                row.toResponse(features.getOrDefault(row.id(), Map.of())));
+          });
+
+      sw.stop();
+      log.info("action=getProductSlice userId={} productCount={} hasNext={} durationMs={}",
+          userId, result.getNumberOfElements(), result.hasNext(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=getProductSlice userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of products of a specific user from the per-tenant
+   * counter, a single primary key lookup.
+   *
+   * @param userId The ID of the user whose products are counted.
+   * @return The number of products, zero if the user never created one.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public long countByUserId(String userId) {
+    return productCounterRepository.findCountByTenantId(userId).orElse(0L);
+  }
+
+  /**
+   * Returns the catalog fingerprint of a specific user: the maintained
+   * product count and catalog version, one primary key lookup.
+   *
+   * @param userId The ID of the user whose catalog version is requested.
+   * @return The catalog version.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public ProductListingVersion getListingVersion(String userId) {
+    return productCounterRepository.findListingVersionByTenantId(userId)
+        .orElse(new ProductListingVersion(0L, 0L));
+  }
+
+  /**
+   * Returns the version counter of a product without loading it.
+   *
+   * @param productId The ID of the product.
+   * @param userId    The ID of the user associated with the product.
+   * @return The product's version.
+   * @throws IllegalArgumentException if the product is not found or access is denied.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public long getProductVersion(Long productId, String userId) {
+    return productRepository.findVersionByIdAndTenantId(productId, userId)
+        .orElseThrow(() -> new IllegalArgumentException("Product not found or access denied"));
+  }
+
+  /**
+   * Retrieves a keyset page of products for a specific user, newest first.
+   * One extra row is fetched to detect whether a following page exists.
+   *
+   * @param userId The ID of the user whose products are to be retrieved.
+   * @param cursor The continuation token of the previous page, or null.
+   * @param size   The maximum number of products to return.
+   * @return A page of ProductResponse with the token for the next page.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPageResponse<ProductResponse> getAllByUserIdAfter(String userId, String cursor,
+                                                                 int size) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      if (size < 1) {
+        throw new BadRequestException("Page size must be at least 1");
+      }
+      CursorCodec.Cursor position =
+          cursor == null || cursor.isBlank() ? null : CursorCodec.decode(cursor);
+      CursorPageResponse<ProductResponse> result = productResponseCache.get(userId,
+          "scroll:" + (position == null ? "" : cursor) + ":" + size,
+          () -> loadKeysetPage(userId, position, size));
+
+      sw.stop();
+      log.info("action=getProductsAfterCursor userId={} productCount={} hasNext={} durationMs={}",
+          userId, result.content().size(), result.hasNext(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=getProductsAfterCursor userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads one keyset page starting after the given position, fetching one
+   * extra row to detect whether a following page exists.
+   */
+  private CursorPageResponse<ProductResponse> loadKeysetPage(String userId,
+                                                             CursorCodec.Cursor position,
+                                                             int size) {
+    Limit limit = Limit.of(size + 1);
+    List<ProductRow> rows = position == null
+        ? productRepository.findKeysetFirstPage(userId, limit)
+        : productRepository.findKeysetPageAfter(userId, position.createdAt(), position.id(), limit);
+
+    boolean hasNext = rows.size() > size;
+    List<ProductRow> page = hasNext ? rows.subList(0, size) : rows;
+    String nextCursor = null;
+    if (hasNext) {
+      ProductRow last = page.get(page.size() - 1);
+      nextCursor = CursorCodec.encode(last.createdAt(), last.id());
+    }
+    Map<Long, Map<String, String>> features = loadFeatures(page);
+    return new CursorPageResponse<>(
+        page.stream()
+            .map(row -> row.toResponse(features.getOrDefault(row.id(), Map.of())))
+            .toList(),
+        nextCursor, hasNext);
+  }
+
+  /**
+   * Searches the products of a specific user. The query is split into words,
+   * which are matched against name and description through the full-text
+   * index; the matching rows and their features are then loaded with one
+   * query each and returned in relevance order.
+   *
+   * @param userId The ID of the user whose products are searched.
+   * @param query  The free-text query.
+   * @param limit  The maximum number of products to return.
+   * @return The matching products, most relevant first.
+   * @throws BadRequestException if the query has no words or the limit is out of range.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<ProductResponse> searchByUserId(String userId, String query, int limit) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+        throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+      }
+      List<String> terms = query == null ? List.of()
+          : Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+              .filter(term -> !term.isEmpty())
+              .distinct()
+              .limit(MAX_SEARCH_TERMS)
+              .toList();
+      if (terms.isEmpty()) {
+        throw new BadRequestException("Search query must contain at least one word");
+      }
+
+      List<ProductResponse> result =
+          loadInOrder(userId, productRepository.searchIds(userId, terms, limit));
+
+      sw.stop();
+      log.info("action=searchProducts userId={} terms={} productCount={} durationMs={}",
+          userId, terms.size(), result.size(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=searchProducts userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Streams all products of a specific user to the sink. Rows are read from a
+   * single server-side streamed query and folded into one product at a time,
+   * so only the product currently being assembled is held in memory. The
+   * export bypasses the response cache.
+   *
+   * @param userId The ID of the user whose products are exported.
+   * @param sink   Receives each product in turn.
+   * @return The number of products exported.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public long exportByUserId(String userId, Consumer<ProductResponse> sink) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    long exported = 0;
+    try (Stream<ProductExportRow> rows = productRepository.streamExportRowsByTenantId(userId)) {
+      ProductExportRow current = null;
+      Map<String, String> features = new HashMap<>();
+      for (ProductExportRow row : (Iterable<ProductExportRow>) rows::iterator) {
+        if (current != null && !current.id().equals(row.id())) {
+          sink.accept(toResponse(current, features));
+          exported++;
+          features = new HashMap<>();
+        }
+        current = row;
+        if (row.featureKey() != null && featureStorage.usesTable()) {
+          features.put(row.featureKey(), row.featureValue());
+        }
+      }
+      if (current != null) {
+        sink.accept(toResponse(current, features));
+        exported++;
+      }
+
+      sw.stop();
+      log.info("action=exportProducts userId={} productCount={} durationMs={}",
+          userId, exported, sw.getTotalTimeMillis());
+      return exported;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=exportProducts userId={} exported={} error={}",
+          userId, exported, e.getMessage(), e);
+      throw e;
+    }
+  }
+
   /**
    * Creates a new product for a specific user.
    *
@@ -70,18 +494,15 @@ public class ProductServiceImpl implements ProductService {
     log.debug("action=createProduct userId={} name={} sku={} price={} category={}",
         userId, request.name(), request.sku(), request.price(), request.category());
 
-    Product product = Product.builder()
-        .tenantId(userId)
-        .name(request.name())
-        .sku(request.sku())
-        .category(request.category())
-        .price(request.price())
-        .description(request.description())
-        .features(request.features())
-        .build();
+    Product product = toEntity(userId, request);
 
     try {
       Product saved = productRepository.save(product);
+      productCounterRepository.adjust(userId, 1);
+      Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+      countFacets(facetDeltas, userId, saved.getCategory(), saved.getPrice(), 1);
+      adjustFacets(facetDeltas);
+      productResponseCache.invalidate(userId);
       sw.stop();
       log.info("action=createProduct userId={} productId={} durationMs={}",
           userId, saved.getId(), sw.getTotalTimeMillis());
@@ -94,6 +515,113 @@ public class ProductServiceImpl implements ProductService {
     }
   }
 
+  /**
+   * Creates many products for a specific user. Items are validated and
+   * checked for SKU conflicts (within the request and against the tenant's
+   * catalog) up front, so a bad item is reported instead of rolling back
+   * the whole batch; the remaining items are inserted with JDBC batching.
+   *
+   * @param userId   The ID of the user creating the products.
+   * @param requests The product creation requests.
+   * @return One result per request, in request order.
+   * @throws BadRequestException if the batch is empty or too large.
+   */
+  @Override
+  @Transactional
+  public ProductBatchResponse createProducts(String userId, List<CreateProductRequest> requests) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      if (requests == null || requests.isEmpty()) {
+        throw new BadRequestException("Batch must contain at least one product");
+      }
+      if (requests.size() > MAX_BATCH_ITEMS) {
+        throw new BadRequestException("Batch must not contain more than " + MAX_BATCH_ITEMS
+            + " products");
+      }
+
+      String[] errors = new String[requests.size()];
+      Set<String> seenSkus = new HashSet<>();
+      for (int i = 0; i < requests.size(); i++) {
+        CreateProductRequest request = requests.get(i);
+        if (request == null) {
+          errors[i] = "Product must not be null";
+          continue;
+        }
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+          errors[i] = violations.stream()
+              .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+              .sorted()
+              .collect(Collectors.joining(", "));
+        } else if (!seenSkus.add(request.sku())) {
+          errors[i] = "Duplicate SKU in batch";
+        }
+      }
+      Set<String> existingSkus = findExistingSkus(userId, seenSkus);
+
+      List<Product> products = new ArrayList<>();
+      List<Integer> productIndexes = new ArrayList<>();
+      for (int i = 0; i < requests.size(); i++) {
+        if (errors[i] == null && existingSkus.contains(requests.get(i).sku())) {
+          errors[i] = "SKU already exists";
+        }
+        if (errors[i] == null) {
+          products.add(toEntity(userId, requests.get(i)));
+          productIndexes.add(i);
+        }
+      }
+
+      if (!products.isEmpty()) {
+        productRepository.persistInBatches(products);
+        productCounterRepository.adjust(userId, products.size());
+        Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+        for (Product product : products) {
+          countFacets(facetDeltas, userId, product.getCategory(), product.getPrice(), 1);
+        }
+        adjustFacets(facetDeltas);
+        productResponseCache.invalidate(userId);
+      }
+
+      Long[] ids = new Long[requests.size()];
+      for (int j = 0; j < products.size(); j++) {
+        ids[productIndexes.get(j)] = products.get(j).getId();
+      }
+      List<ProductBatchItemResult> results = new ArrayList<>(requests.size());
+      for (int i = 0; i < requests.size(); i++) {
+        CreateProductRequest request = requests.get(i);
+        results.add(new ProductBatchItemResult(i, request == null ? null : request.sku(),
+            ids[i], errors[i]));
+      }
+
+      sw.stop();
+      log.info("action=createProducts userId={} requested={} created={} durationMs={}",
+          userId, requests.size(), products.size(), sw.getTotalTimeMillis());
+      return new ProductBatchResponse(products.size(), requests.size() - products.size(),
+          results);
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=createProducts userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns which of the given SKUs the tenant already uses, querying in
+   * bounded chunks.
+   */
+  private Set<String> findExistingSkus(String userId, Set<String> skus) {
+    Set<String> existing = new HashSet<>();
+    List<String> candidates = new ArrayList<>(skus);
+    for (int from = 0; from < candidates.size(); from += IN_LIST_CHUNK) {
+      List<String> chunk =
+          candidates.subList(from, Math.min(from + IN_LIST_CHUNK, candidates.size()));
+      existing.addAll(productRepository.findExistingSkus(userId, chunk));
+    }
+    return existing;
+  }
+
   /**
    * Updates an existing product for a specific user.
    *
@@ -114,6 +642,8 @@ public class ProductServiceImpl implements ProductService {
     try {
       Product existing = productRepository.findByIdAndTenantId(productId, userId)
           .orElseThrow(() -> new IllegalArgumentException("Product not found or access denied"));
+      Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+      countFacets(facetDeltas, userId, existing.getCategory(), existing.getPrice(), -1);
 
       if (request.name() != null) {
         existing.setName(request.name());
@@ -131,10 +661,22 @@ public class ProductServiceImpl implements ProductService {
         existing.setCategory(request.category());
       }
       if(request.features() != null) {
-        existing.setFeatures(request.features());
+        if (featureStorage.usesTable()) {
+          existing.setFeatures(request.features());
+        }
+        if (featureStorage.usesJson()) {
+          existing.setFeaturesJson(request.features());
+        }
+        // A change to the feature collection alone does not dirty the product row, so
+        // @PreUpdate would not run; updatedAt must move anyway.
+        existing.setUpdatedAt(LocalDateTime.now());
       }
 
       Product saved = productRepository.save(existing);
+      countFacets(facetDeltas, userId, saved.getCategory(), saved.getPrice(), 1);
+      adjustFacets(facetDeltas);
+      productCounterRepository.adjust(userId, 0);
+      productResponseCache.invalidate(userId);
       sw.stop();
       log.info("action=updateProduct userId={} productId={} durationMs={}",
           userId, productId, sw.getTotalTimeMillis());
@@ -147,6 +689,179 @@ public class ProductServiceImpl implements ProductService {
     }
   }
 
+  /**
+   * Changes the price of every product of a category by a percentage. The
+   * products are updated with set-based UPDATE statements over chunks of ids
+   * instead of being loaded, and updatedAt is maintained explicitly since
+   * bulk statements skip the entity callbacks. The prices of each chunk are
+   * read before it is updated so the price band counts can follow. All chunks
+   * share one transaction so a failure never leaves a category half repriced.
+   *
+   * @param userId   The ID of the user owning the products.
+   * @param category The category to reprice.
+   * @param percent  The change in percent.
+   * @return The number of repriced products.
+   */
+  @Override
+  @Transactional
+  public long changePriceByCategory(String userId, String category, BigDecimal percent) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      BigDecimal factor = BigDecimal.ONE.add(percent.movePointLeft(2));
+      if (factor.signum() <= 0) {
+        throw new BadRequestException("Percent must be greater than -100");
+      }
+      LocalDateTime now = LocalDateTime.now();
+      long affected = 0;
+      Long afterId = 0L;
+      List<Long> ids;
+      Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+      do {
+        ids = productRepository.findIdsByTenantIdAndCategoryAfter(userId, category, afterId,
+            Limit.of(IN_LIST_CHUNK));
+        if (!ids.isEmpty()) {
+          for (ProductFacetRow row
+              : productRepository.findFacetRowsByTenantIdAndIdIn(userId, ids)) {
+            countFacet(facetDeltas, userId, ProductFacet.PRICE, PriceBands.of(row.price()), -1);
+            countFacet(facetDeltas, userId, ProductFacet.PRICE,
+                PriceBands.of(row.price().multiply(factor).setScale(2, RoundingMode.HALF_UP)), 1);
+          }
+          affected += productRepository.scalePriceByTenantIdAndIdIn(userId, ids, factor, now);
+          afterId = ids.get(ids.size() - 1);
+        }
+      } while (ids.size() == IN_LIST_CHUNK);
+
+      if (affected > 0) {
+        adjustFacets(facetDeltas);
+        productCounterRepository.adjust(userId, 0);
+        productResponseCache.invalidate(userId);
+      }
+      sw.stop();
+      log.info("action=changePriceByCategory userId={} category={} percent={} affected={}"
+          + " durationMs={}", userId, category, percent, affected, sw.getTotalTimeMillis());
+      return affected;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=changePriceByCategory userId={} category={} error={}",
+          userId, category, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Deletes the products with the given SKUs. Each chunk of SKUs is resolved
+   * to ids and removed with one DELETE for the feature rows and one for the
+   * products, without loading any entity. Category and price of the products
+   * are read first so their facet counts can be decremented.
+   *
+   * @param userId The ID of the user owning the products.
+   * @param skus   The SKUs to delete; unknown SKUs are ignored.
+   * @return The number of deleted products.
+   */
+  @Override
+  @Transactional
+  public long deleteBySkus(String userId, List<String> skus) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      List<String> distinct = skus.stream().distinct().toList();
+      long affected = 0;
+      Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+      for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK) {
+        List<String> chunk =
+            distinct.subList(from, Math.min(from + IN_LIST_CHUNK, distinct.size()));
+        List<Long> ids = productRepository.findIdsByTenantIdAndSkuIn(userId, chunk);
+        if (!ids.isEmpty()) {
+          for (ProductFacetRow row
+              : productRepository.findFacetRowsByTenantIdAndIdIn(userId, ids)) {
+            countFacets(facetDeltas, userId, row.category(), row.price(), -1);
+          }
+          productRepository.deleteFeaturesByProductIdIn(ids);
+          affected += productRepository.deleteByTenantIdAndIdIn(userId, ids);
+        }
+      }
+
+      if (affected > 0) {
+        productCounterRepository.adjust(userId, -affected);
+        adjustFacets(facetDeltas);
+        productResponseCache.invalidate(userId);
+      }
+      sw.stop();
+      log.info("action=deleteBySkus userId={} requested={} affected={} durationMs={}",
+          userId, skus.size(), affected, sw.getTotalTimeMillis());
+      return affected;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=deleteBySkus userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the product counts of a specific user per category and price
+   * band. The counts are read from the facet table, which the write paths
+   * keep current, so the cost depends on the number of buckets rather than
+   * the number of products.
+   *
+   * @param userId The ID of the user whose catalog is summarized.
+   * @return The facet counts.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public ProductFacetsResponse getFacetsByUserId(String userId) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      ProductFacetsResponse result = productResponseCache.get(userId, "facets",
+          () -> toFacetsResponse(productFacetRepository.findCountsByTenantId(userId)));
+
+      sw.stop();
+      log.info("action=getFacets userId={} categories={} durationMs={}",
+          userId, result.categories().size(), sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=getFacets userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  /**
+   * Recomputes the facet counts of a specific user from the products table,
+   * replacing the maintained counts in one transaction. Scans every product
+   * of the user, so it is meant for repairing drift, not for the read path.
+   *
+   * @param userId The ID of the user whose facet counts are rebuilt.
+   * @return The recomputed facet counts.
+   */
+  @Override
+  @Transactional
+  public ProductFacetsResponse rebuildFacets(String userId) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+    try {
+      productFacetRepository.deleteByTenantId(userId);
+      int buckets = productFacetRepository.insertCategoryCounts(userId)
+          + productFacetRepository.insertPriceBandCounts(userId);
+      productResponseCache.invalidate(userId);
+      ProductFacetsResponse result =
+          toFacetsResponse(productFacetRepository.findCountsByTenantId(userId));
+
+      sw.stop();
+      log.info("action=rebuildFacets userId={} buckets={} durationMs={}",
+          userId, buckets, sw.getTotalTimeMillis());
+      return result;
+    } catch (Exception e) {
+      sw.stop();
+      log.error("action=rebuildFacets userId={} error={}",
+          userId, e.getMessage(), e);
+      throw e;
+    }
+  }
+
   /**
    * Deletes a product for a specific user.
    *
@@ -164,6 +879,11 @@ public class ProductServiceImpl implements ProductService {
       Product existing = productRepository.findByIdAndTenantId(productId, userId)
           .orElseThrow(() -> new IllegalArgumentException("Product not found or access denied"));
       productRepository.delete(existing);
+      productCounterRepository.adjust(userId, -1);
+      Map<ProductFacet.Key, Long> facetDeltas = new TreeMap<>(FACET_ORDER);
+      countFacets(facetDeltas, userId, existing.getCategory(), existing.getPrice(), -1);
+      adjustFacets(facetDeltas);
+      productResponseCache.invalidate(userId);
       sw.stop();
       log.info("action=deleteProduct userId={} productId={} durationMs={}",
           userId, productId, sw.getTotalTimeMillis());
@@ -175,6 +895,25 @@ public class ProductServiceImpl implements ProductService {
     }
   }
 
+  /**
+   * Retrieves a product by its ID and associated user ID as a read-only
+   * projection, without loading a managed entity.
+   *
+   * @param productId The ID of the product to retrieve.
+   * @param userId    The ID of the user associated with the product.
+   * @return The ProductResponse if found.
+   * @throws IllegalArgumentException if the product is not found or access is denied.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public ProductResponse getProductByIdAndUserId(Long productId, String userId) {
+    return productResponseCache.get(userId, "product:" + productId, () -> {
+      ProductRow row = productRepository.findRowByIdAndTenantId(productId, userId)
+          .orElseThrow(() -> new IllegalArgumentException("Product not found or access denied"));
+      return row.toResponse(loadFeatures(List.of(row)).getOrDefault(row.id(), Map.of()));
+    });
+  }
+
   /**
    * Retrieves a Product entity by its ID and associated user ID.
    *
@@ -189,6 +928,149 @@ public class ProductServiceImpl implements ProductService {
         .orElseThrow(() -> new IllegalArgumentException("Product not found or access denied"));
   }
 
+  /**
+   * Resolves the features of all given products. Products whose features
+   * are stored in the JSON column need no query; the others are loaded with
+   * a single query, grouped by product id, so listing a page never
+   * initializes the lazy feature collection of each product one by one.
+   *
+   * @param rows The products whose features are needed.
+   * @return Features keyed by product id; products without features are absent.
+   */
+  private Map<Long, Map<String, String>> loadFeatures(List<ProductRow> rows) {
+    if (rows.isEmpty()) {
+      return Map.of();
+    }
+    Map<Long, Map<String, String>> featuresByProduct = new HashMap<>();
+    List<Long> ids = new ArrayList<>();
+    for (ProductRow row : rows) {
+      if (featureStorage.usesJson() && row.featuresJson() != null) {
+        featuresByProduct.put(row.id(), row.featuresJson());
+      } else if (featureStorage.usesTable()) {
+        ids.add(row.id());
+      }
+    }
+    if (ids.isEmpty()) {
+      return featuresByProduct;
+    }
+    for (ProductFeatureRow row : productRepository.findFeatureRowsByProductIdIn(ids)) {
+      featuresByProduct.computeIfAbsent(row.productId(), id -> new HashMap<>())
+          .put(row.key(), row.value());
+    }
+    return featuresByProduct;
+  }
+
+  /**
+   * Loads the products with the given ids, with their features, keeping the
+   * order of the ids. Ids that no longer exist are skipped.
+   *
+   * @param userId The ID of the user owning the products.
+   * @param ids    The product ids in the desired order.
+   * @return The products in id order.
+   */
+  private List<ProductResponse> loadInOrder(String userId, List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, ProductRow> rows = new HashMap<>();
+    for (ProductRow row : productRepository.findRowsByTenantIdAndIdIn(userId, ids)) {
+      rows.put(row.id(), row);
+    }
+    Map<Long, Map<String, String>> features = loadFeatures(List.copyOf(rows.values()));
+    return ids.stream()
+        .map(rows::get)
+        .filter(Objects::nonNull)
+        .map(row -> row.toResponse(features.getOrDefault(row.id(), Map.of())))
+        .toList();
+  }
+
+  /**
+   * Records that a product with the given category and price was added
+   * (sign 1) or removed (sign -1).
+   */
+  private static void countFacets(Map<ProductFacet.Key, Long> deltas, String userId,
+                                  String category, BigDecimal price, long sign) {
+    countFacet(deltas, userId, ProductFacet.CATEGORY, category, sign);
+    countFacet(deltas, userId, ProductFacet.PRICE, PriceBands.of(price), sign);
+  }
+
+  private static void countFacet(Map<ProductFacet.Key, Long> deltas, String userId,
+                                 String facet, String bucket, long delta) {
+    deltas.merge(new ProductFacet.Key(userId, facet, bucket), delta, Long::sum);
+  }
+
+  /**
+   * Applies accumulated facet deltas in {@link #FACET_ORDER}, skipping
+   * buckets whose changes cancel out (e.g. an update within one price band).
+   */
+  private void adjustFacets(Map<ProductFacet.Key, Long> deltas) {
+    deltas.forEach((key, delta) -> {
+      if (delta != 0) {
+        productFacetRepository.adjust(key.getTenantId(), key.getFacet(), key.getBucket(), delta);
+      }
+    });
+  }
+
+  /**
+   * Splits facet rows into the response, categories by descending count and
+   * price bands in ascending price order.
+   */
+  private static ProductFacetsResponse toFacetsResponse(List<ProductFacetCount> counts) {
+    List<FacetCount> categories = new ArrayList<>();
+    Map<String, Long> bands = new HashMap<>();
+    for (ProductFacetCount count : counts) {
+      if (ProductFacet.CATEGORY.equals(count.facet())) {
+        categories.add(new FacetCount(count.bucket(), count.count()));
+      } else if (ProductFacet.PRICE.equals(count.facet())) {
+        bands.put(count.bucket(), count.count());
+      }
+    }
+    categories.sort(Comparator.comparingLong(FacetCount::count).reversed()
+        .thenComparing(FacetCount::value));
+    List<FacetCount> priceBands = PriceBands.LABELS.stream()
+        .filter(bands::containsKey)
+        .map(label -> new FacetCount(label, bands.get(label)))
+        .toList();
+    return new ProductFacetsResponse(List.copyOf(categories), priceBands);
+  }
+
+  /**
+   * Describes page number, size and sort of a request as part of a cache key.
+   */
+  private static String shape(Pageable pageable) {
+    return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+  }
+
+  /**
+   * Converts the scalar columns of an export row and the features of its
+   * product to a response DTO, preferring the JSON column when it is in use
+   * and populated.
+   */
+  private ProductResponse toResponse(ProductExportRow row, Map<String, String> features) {
+    return new ProductResponse(row.id(), row.name(), row.sku(), row.category(), row.price(),
+        row.description(),
+        featureStorage.usesJson() && row.featuresJson() != null ? row.featuresJson() : features);
+  }
+
+  /**
+   * Builds a new product entity from a create request, writing the features
+   * to the storages in use. Products stored as JSON always get a document,
+   * empty if there are no features, so they never fall back to the table.
+   */
+  private Product toEntity(String userId, CreateProductRequest request) {
+    return Product.builder()
+        .tenantId(userId)
+        .name(request.name())
+        .sku(request.sku())
+        .category(request.category())
+        .price(request.price())
+        .description(request.description())
+        .features(featureStorage.usesTable() ? request.features() : null)
+        .featuresJson(featureStorage.usesJson()
+            ? (request.features() == null ? Map.of() : request.features()) : null)
+        .build();
+  }
+
   /**
    * Converts a Product entity to a ProductDtos.Response DTO.
    *
@@ -203,7 +1085,8 @@ public class ProductServiceImpl implements ProductService {
         p.getCategory(),
         p.getPrice(),
         p.getDescription(),
-        p.getFeatures()
+        featureStorage.usesJson() && p.getFeaturesJson() != null
+            ? p.getFeaturesJson() : p.getFeatures()
     );
   }
 }
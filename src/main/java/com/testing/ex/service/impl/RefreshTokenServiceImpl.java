@@ -0,0 +1,202 @@
+package com.testing.ex.service.impl;
+
+import com.testing.ex.domain.dto.response.LoginResponse;
+import com.testing.ex.domain.entity.RefreshToken;
+import com.testing.ex.domain.entity.User;
+import com.testing.ex.repos.RefreshTokenRepository;
+import com.testing.ex.security.TestingUserDetails;
+import com.testing.ex.service.JwtService;
+import com.testing.ex.service.RefreshTokenService;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StopWatch;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * <p>A token is 32 random bytes, Base64url encoded. It is stored as its
+ * HMAC-SHA256 under a server-side key: a keyed hash is enough because the
+ * token has full entropy, so renewing an access token costs one lookup on the
+ * unique hash index instead of a BCrypt verification. Every refresh revokes
+ * the presented token and issues a successor; a revoked token presented
+ * again means it was copied, and all of the user's tokens are revoked.
+ *
+ * <p>The hash key is security.refresh-token.secret when set. Otherwise it is
+ * derived from the JWT secret with HKDF-SHA256 under its own label, so the
+ * token hashes never share a key with the access-token signatures.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+  private static final int TOKEN_BYTES = 32;
+  private static final int TOKEN_LENGTH = 43;
+  private static final String HKDF_LABEL = "refresh-token-hash";
+
+  private static final ThreadLocal<SecureRandom> RANDOMS =
+      ThreadLocal.withInitial(SecureRandom::new);
+
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final JwtService jwtService;
+  private final Duration ttl;
+  private final ThreadLocal<Mac> macs;
+
+  /**
+   * Creates the service.
+   *
+   * @param refreshTokenRepository repository of the stored token hashes
+   * @param jwtService             issues the access tokens
+   * @param secret                 Base64 encoded key of the token hash, blank to derive it
+   * @param jwtSecret              Base64 encoded JWT secret the key is derived from
+   * @param ttl                    lifetime of a refresh token
+   */
+  public RefreshTokenServiceImpl(
+      RefreshTokenRepository refreshTokenRepository,
+      JwtService jwtService,
+      @Value("${security.refresh-token.secret:}") String secret,
+      @Value("${security.jwt.secret}") String jwtSecret,
+      @Value("${security.refresh-token.ttl:30d}") Duration ttl) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.jwtService = jwtService;
+    this.ttl = ttl;
+    byte[] keyBytes = secret.isBlank()
+        ? hkdf(Base64.getDecoder().decode(jwtSecret), HKDF_LABEL)
+        : Base64.getDecoder().decode(secret);
+    SecretKeySpec key = new SecretKeySpec(keyBytes, "HmacSHA256");
+    this.macs = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 is not available", e);
+      }
+    });
+  }
+
+  /**
+   * Issues a token and drops the user's expired ones.
+   *
+   * @param user the authenticated user
+   * @return the opaque token
+   */
+  @Override
+  @Transactional
+  public String issue(User user) {
+    LocalDateTime now = LocalDateTime.now();
+    refreshTokenRepository.deleteExpiredByUserId(user.getId(), now);
+    return store(user, now);
+  }
+
+  /**
+   * Rotates the token and issues a new access token for its user.
+   *
+   * @param refreshToken the presented token
+   * @return the new access token and successor refresh token
+   * @throws BadCredentialsException when the token cannot be used
+   */
+  @Override
+  @Transactional(noRollbackFor = BadCredentialsException.class)
+  public LoginResponse refresh(String refreshToken) {
+    StopWatch sw = new StopWatch();
+    sw.start();
+
+    try {
+      if (refreshToken == null || refreshToken.length() != TOKEN_LENGTH) {
+        throw new BadCredentialsException("Invalid refresh token");
+      }
+      RefreshToken stored = refreshTokenRepository.findWithUserByTokenHash(hash(refreshToken))
+          .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+      User user = stored.getUser();
+      LocalDateTime now = LocalDateTime.now();
+
+      if (stored.getRevokedAt() != null
+          || refreshTokenRepository.revoke(stored.getId(), now) == 0) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(user.getId(), now);
+        log.warn("action=refreshToken userId={} reuseDetected=true revoked={}", user.getId(),
+            revoked);
+        throw new BadCredentialsException("Invalid refresh token");
+      }
+      if (!stored.getExpiresAt().isAfter(now)) {
+        throw new BadCredentialsException("Refresh token expired");
+      }
+      if (!user.isEnabled()) {
+        throw new BadCredentialsException("Invalid refresh token");
+      }
+
+      LoginResponse response = LoginResponse.builder()
+          .token(jwtService.generateToken(new TestingUserDetails(user)))
+          .expiration(jwtService.getExpirationTime())
+          .refreshToken(store(user, now))
+          .build();
+
+      sw.stop();
+      log.info("action=refreshToken userId={} durationMs={}", user.getId(),
+          sw.getTotalTimeMillis());
+      return response;
+    } catch (BadCredentialsException e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.warn("action=refreshToken error={}", e.getMessage());
+      throw e;
+    } catch (Exception e) {
+      if (sw.isRunning()) {
+        sw.stop();
+      }
+      log.error("action=refreshToken error={}", e.getMessage(), e);
+      throw e;
+    }
+  }
+
+  private String store(User user, LocalDateTime now) {
+    byte[] random = new byte[TOKEN_BYTES];
+    RANDOMS.get().nextBytes(random);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    refreshTokenRepository.save(RefreshToken.builder()
+        .user(user)
+        .tokenHash(hash(token))
+        .expiresAt(now.plus(ttl))
+        .build());
+    return token;
+  }
+
+  /**
+   * HKDF-SHA256 (RFC 5869) with an empty salt, producing one 32-byte block.
+   *
+   * @param inputKey the input key material
+   * @param info     the context label separating keys derived from the same input
+   * @return the derived key
+   */
+  static byte[] hkdf(byte[] inputKey, String info) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(new byte[mac.getMacLength()], "HmacSHA256"));
+      byte[] pseudoRandomKey = mac.doFinal(inputKey);
+      mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+      mac.update(info.getBytes(StandardCharsets.UTF_8));
+      return mac.doFinal(new byte[] {1});
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+
+  /**
+   * Keyed hash of a token, Base64url encoded to the 43 characters of the column.
+   */
+  String hash(String token) {
+    byte[] mac = macs.get().doFinal(token.getBytes(StandardCharsets.US_ASCII));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+  }
+}
@@ -0,0 +1,103 @@
+package com.testing.ex.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binary encodings of the product API: CBOR ({@code application/cbor}) and
+ * Smile ({@code application/x-jackson-smile}).
+ *
+ * <p>The mappers are built from the application's Jackson configuration, so
+ * binary and JSON responses carry the same fields and formats; only the wire
+ * encoding differs. JSON stays the default for clients that do not ask for a
+ * binary type.
+ */
+@Component
+public class BinaryCodecs {
+
+  /**
+   * Media type of Smile encoded bodies.
+   */
+  public static final MediaType APPLICATION_SMILE =
+      new MediaType("application", "x-jackson-smile");
+
+  private final ObjectMapper cborMapper;
+  private final ObjectMapper smileMapper;
+
+  /**
+   * Creates the codecs.
+   *
+   * @param builder the application's Jackson builder (a fresh prototype per injection point)
+   */
+  public BinaryCodecs(Jackson2ObjectMapperBuilder builder) {
+    this.cborMapper = builder.factory(new CBORFactory()).build();
+    this.smileMapper = builder.factory(new SmileFactory()).build();
+  }
+
+  public ObjectMapper cborMapper() {
+    return cborMapper;
+  }
+
+  public ObjectMapper smileMapper() {
+    return smileMapper;
+  }
+
+  /**
+   * Returns the mapper of a binary media type.
+   *
+   * @param mediaType the negotiated or declared media type, may be {@code null}
+   * @return the CBOR or Smile mapper, or empty for any other type
+   */
+  public Optional<ObjectMapper> mapperFor(MediaType mediaType) {
+    if (mediaType == null) {
+      return Optional.empty();
+    }
+    if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+      return Optional.of(cborMapper);
+    }
+    if (mediaType.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+      return Optional.of(smileMapper);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Picks the binary type a request asks for. The first concrete type of the
+   * Accept header decides, so {@code application/cbor, application/json}
+   * selects CBOR while a plain {@code *}{@code /*} keeps JSON.
+   *
+   * @param accept the Accept header value, may be {@code null}
+   * @return the requested binary type, or empty when JSON should be used
+   */
+  public static Optional<MediaType> requestedBinaryType(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return Optional.empty();
+    }
+    List<MediaType> types;
+    try {
+      types = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      return Optional.empty();
+    }
+    for (MediaType type : types) {
+      if (type.isWildcardType() || type.isWildcardSubtype() || type.getQualityValue() == 0) {
+        continue;
+      }
+      if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+        return Optional.of(MediaType.APPLICATION_CBOR);
+      }
+      if (type.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+        return Optional.of(APPLICATION_SMILE);
+      }
+      return Optional.empty();
+    }
+    return Optional.empty();
+  }
+}
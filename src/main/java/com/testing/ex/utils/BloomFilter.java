@@ -0,0 +1,111 @@
+package com.testing.ex.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings: {@link #mightContain(String)} never
+ * answers {@code false} for a string that was {@link #put(String) put}, and
+ * answers {@code true} for other strings with about the configured
+ * false-positive probability while no more than the expected number of
+ * strings were added. Bits are only ever set, with compare-and-set, so
+ * concurrent puts and reads need no lock.
+ *
+ * <p>Probe positions use double hashing, {@code h1 + i * h2}, over the two
+ * halves of a 64-bit FNV-1a hash of the UTF-8 bytes.
+ */
+public final class BloomFilter {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray words;
+  private final long bits;
+  private final int hashes;
+
+  /**
+   * Creates an empty filter sized for the expected number of strings.
+   *
+   * @param expectedInsertions number of strings the filter is sized for
+   * @param falsePositiveRate  target false-positive probability, in (0, 1)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter sizing");
+    }
+    double ln2 = Math.log(2);
+    long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+    int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+    this.words = new AtomicLongArray(words);
+    this.bits = (long) words * 64;
+    this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+  }
+
+  /**
+   * Adds a string.
+   *
+   * @param value the string to add
+   */
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      long bit = index(h1 + i * h2);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = words.get(word);
+      while ((current & mask) == 0
+          && !words.compareAndSet(word, current, current | mask)) {
+        current = words.get(word);
+      }
+    }
+  }
+
+  /**
+   * Tells whether a string may have been added.
+   *
+   * @param value the string to look up
+   * @return {@code false} if the string was definitely never added
+   */
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      long bit = index(h1 + i * h2);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Size of the bit array, in bits.
+   *
+   * @return the number of bits
+   */
+  public long bitSize() {
+    return bits;
+  }
+
+  private long index(int combined) {
+    return (combined & 0xffffffffL) % bits;
+  }
+
+  private static long hash(String value) {
+    long hash = FNV_OFFSET;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    // FNV-1a alone mixes the high bits poorly; finish with the murmur3 fmix64 step.
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb3f98e09dd6bL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
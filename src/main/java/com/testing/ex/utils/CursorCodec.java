@@ -0,0 +1,63 @@
+package com.testing.ex.utils;
+
+import com.testing.ex.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used by keyset (cursor)
+ * pagination. A token captures the sort key of the last row of a page,
+ * i.e. the (createdAt, id) pair, so the next page can seek directly to it.
+ */
+public final class CursorCodec {
+
+  private static final char SEPARATOR = '|';
+
+  private CursorCodec() {
+  }
+
+  /**
+   * Position of the last row returned to the client.
+   *
+   * @param createdAt creation timestamp of the row
+   * @param id        primary key of the row, used as a tie breaker
+   */
+  public record Cursor(LocalDateTime createdAt, Long id) {
+  }
+
+  /**
+   * Encodes the given position as a URL-safe token.
+   *
+   * @param createdAt creation timestamp of the last row
+   * @param id        id of the last row
+   * @return opaque continuation token
+   */
+  public static String encode(LocalDateTime createdAt, Long id) {
+    String raw = createdAt.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token previously produced by {@link #encode(LocalDateTime, Long)}.
+   *
+   * @param token continuation token received from the client
+   * @return decoded cursor
+   * @throws BadRequestException if the token is malformed
+   */
+  public static Cursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int idx = raw.lastIndexOf(SEPARATOR);
+      if (idx <= 0) {
+        throw new BadRequestException("Invalid cursor");
+      }
+      return new Cursor(LocalDateTime.parse(raw.substring(0, idx)),
+          Long.parseLong(raw.substring(idx + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BadRequestException("Invalid cursor", e);
+    }
+  }
+}
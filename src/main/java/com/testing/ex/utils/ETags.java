@@ -0,0 +1,43 @@
+package com.testing.ex.utils;
+
+import com.testing.ex.domain.dto.projection.ProductListingVersion;
+import java.nio.charset.StandardCharsets;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Builds strong entity tags for product resources from their version
+ * metadata, so conditional requests can be answered without loading or
+ * serializing the products themselves.
+ */
+public final class ETags {
+
+  private ETags() {
+  }
+
+  /**
+   * Entity tag of a single product representation.
+   *
+   * @param productId      the product id
+   * @param version        the product's version counter
+   * @param representation the negotiated encoding, so each encoding gets its own tag
+   * @return quoted strong ETag
+   */
+  public static String forProduct(Long productId, long version, String representation) {
+    return tag("product|" + productId + "|" + version + "|" + representation);
+  }
+
+  /**
+   * Entity tag of a listing of the tenant's products.
+   *
+   * @param version the tenant's catalog fingerprint
+   * @param shape   the listing parameters (page, size, sort ...)
+   * @return quoted strong ETag
+   */
+  public static String forListing(ProductListingVersion version, String shape) {
+    return tag("listing|" + version.count() + "|" + version.version() + "|" + shape);
+  }
+
+  private static String tag(String value) {
+    return "\"" + DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+}
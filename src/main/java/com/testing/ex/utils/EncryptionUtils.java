@@ -1,78 +1,340 @@
 package com.testing.ex.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.ex.exception.BadRequestException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
- * Utility class for encrypting and decrypting JSON data using AES encryption.
+ * Encrypts and decrypts JSON documents with AES-GCM.
+ *
+ * <p>The key is derived once and each thread reuses its own {@link Cipher} and
+ * nonce source, so a request pays only for initializing the cipher with a
+ * fresh random nonce. Objects are serialized by the application's
+ * {@link ObjectMapper} straight to bytes and encrypted into a single buffer
+ * laid out as
+ * {@code nonce || ciphertext || tag}, which is returned Base64 encoded.
+ *
+ * <p>Payloads too large to hold in memory use the streaming format instead:
+ * a header of a version byte and a random 7-byte nonce prefix, followed by
+ * segments of at most {@value #SEGMENT_SIZE} plaintext bytes, each sealed
+ * separately with the nonce {@code prefix || segment index || last flag}.
+ * Segments can be verified and released one at a time, while reordering,
+ * dropping or truncating them fails authentication. The final segment is
+ * always shorter than a full one (possibly empty), which is how readers
+ * recognise it. The whole stream is Base64 encoded.
  */
 @Component
 public class EncryptionUtils {
 
-  private final String ALGO = "AES";
-  private final ObjectMapper mapper = new ObjectMapper();
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int NONCE_LENGTH = 12;
+  private static final int TAG_BITS = 128;
+  private static final int TAG_LENGTH = TAG_BITS / 8;
 
-  @Value("${encryption.secret.key}")
-  private String secretKey;
+  /**
+   * Plaintext bytes per segment of the streaming format.
+   */
+  static final int SEGMENT_SIZE = 64 * 1024;
+
+  private static final byte STREAM_VERSION = 1;
+  private static final int NONCE_PREFIX_LENGTH = 7;
+
+  private static final ThreadLocal<Cipher> CIPHERS =
+      ThreadLocal.withInitial(EncryptionUtils::newCipher);
+
+  private static final ThreadLocal<SecureRandom> RANDOMS =
+      ThreadLocal.withInitial(SecureRandom::new);
+
+  private final SecretKeySpec key;
+  private final ObjectMapper mapper;
 
   /**
-   * Encrypts the given data using AES encryption.
+   * Creates the engine.
    *
-   * @param data the plaintext data to encrypt
-   * @return the encrypted data as a Base64 encoded string
-   * @throws Exception if encryption fails
+   * @param secretKey AES key of 16, 24 or 32 bytes (UTF-8)
+   * @param mapper    the mapper serializing the encrypted objects
    */
-  private String encrypt(String data) throws Exception {
-    SecretKeySpec key = new SecretKeySpec(secretKey.getBytes(), ALGO);
-    Cipher cipher = Cipher.getInstance(ALGO);
-    cipher.init(Cipher.ENCRYPT_MODE, key);
-    return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes()));
+  public EncryptionUtils(@Value("${encryption.secret.key}") String secretKey, ObjectMapper mapper) {
+    byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+    if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+      throw new IllegalArgumentException("encryption.secret.key must be 16, 24 or 32 bytes");
+    }
+    this.key = new SecretKeySpec(keyBytes, "AES");
+    this.mapper = mapper;
   }
 
   /**
-   * Decrypts the given encrypted data using AES decryption.
+   * Encrypts an object by serializing it to JSON and encrypting the bytes.
    *
-   * @param encryptedData the encrypted data as a Base64 encoded string
-   * @return the decrypted plaintext data
-   * @throws Exception if decryption fails
+   * @param obj the object to encrypt
+   * @return Base64 of nonce, ciphertext and authentication tag
+   * @throws IllegalStateException if serialization or encryption fails
    */
-  private String decrypt(String encryptedData) throws Exception {
-    SecretKeySpec key = new SecretKeySpec(secretKey.getBytes(), ALGO);
-    Cipher cipher = Cipher.getInstance(ALGO);
-    cipher.init(Cipher.DECRYPT_MODE, key);
-    byte[] decoded = Base64.getDecoder().decode(encryptedData);
-    return new String(cipher.doFinal(decoded));
+  public String encryptJson(Object obj) {
+    try {
+      byte[] plain = mapper.writeValueAsBytes(obj);
+      byte[] nonce = new byte[NONCE_LENGTH];
+      RANDOMS.get().nextBytes(nonce);
+      byte[] sealed = new byte[NONCE_LENGTH + plain.length + TAG_LENGTH];
+      System.arraycopy(nonce, 0, sealed, 0, NONCE_LENGTH);
+      Cipher cipher = CIPHERS.get();
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+      cipher.doFinal(plain, 0, plain.length, sealed, NONCE_LENGTH);
+      return Base64.getEncoder().encodeToString(sealed);
+    } catch (IOException | GeneralSecurityException e) {
+      throw new IllegalStateException("Could not encrypt JSON", e);
+    }
   }
 
   /**
-   * Encrypts an object by converting it to JSON and then encrypting the JSON string.
+   * Decrypts data produced by {@link #encryptJson(Object)} and reads the JSON
+   * back into an object of the given type.
    *
-   * @param obj the object to encrypt
-   * @return the encrypted data as a Base64 encoded string
-   * @throws Exception if encryption fails
+   * @param encryptedData Base64 of nonce, ciphertext and authentication tag
+   * @param valueType     the class of the object to return
+   * @param <T>           the type of the object to return
+   * @return the decrypted object
+   * @throws BadRequestException if the data is malformed, tampered with or not valid JSON
    */
-  public String encryptJson(Object obj) throws Exception {
-    String json = mapper.writeValueAsString(obj);
-    return encrypt(json);
+  public <T> T decryptJson(String encryptedData, Class<T> valueType) {
+    byte[] sealed;
+    try {
+      sealed = Base64.getDecoder().decode(encryptedData.strip());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Invalid encrypted message", e);
+    }
+    return decryptJson(sealed, valueType);
   }
 
   /**
-   * Decrypts the given encrypted data and converts the resulting JSON string back to an object
-   * of the specified type.
+   * Decrypts the raw bytes behind the Base64 text produced by
+   * {@link #encryptJson(Object)}, for callers that carry them in a binary
+   * encoding.
    *
-   * @param encryptedData the encrypted data as a Base64 encoded string
+   * @param sealed    nonce, ciphertext and authentication tag
    * @param valueType the class of the object to return
-   * @param <T> the type of the object to return
+   * @param <T>       the type of the object to return
    * @return the decrypted object
-   * @throws Exception if decryption or JSON parsing fails
+   * @throws BadRequestException if the data is malformed, tampered with or not valid JSON
+   */
+  public <T> T decryptJson(byte[] sealed, Class<T> valueType) {
+    try {
+      if (sealed == null || sealed.length < NONCE_LENGTH + TAG_LENGTH) {
+        throw new BadRequestException("Invalid encrypted message");
+      }
+      Cipher cipher = CIPHERS.get();
+      cipher.init(Cipher.DECRYPT_MODE, key,
+          new GCMParameterSpec(TAG_BITS, sealed, 0, NONCE_LENGTH));
+      byte[] plain = cipher.doFinal(sealed, NONCE_LENGTH, sealed.length - NONCE_LENGTH);
+      return mapper.readValue(plain, valueType);
+    } catch (IOException | GeneralSecurityException e) {
+      throw new BadRequestException("Invalid encrypted message", e);
+    }
+  }
+
+  /**
+   * Returns a stream that encrypts everything written to it in the streaming
+   * format and writes the Base64 text to the target. At most one segment is
+   * buffered. Closing the returned stream seals the final segment and closes
+   * the target.
+   *
+   * @param target receives the Base64 encoded ciphertext
+   * @return the plaintext sink
+   * @throws IOException if writing the header fails
+   */
+  public OutputStream encryptingStream(OutputStream target) throws IOException {
+    byte[] prefix = new byte[NONCE_PREFIX_LENGTH];
+    RANDOMS.get().nextBytes(prefix);
+    OutputStream encoded = Base64.getEncoder().wrap(target);
+    encoded.write(STREAM_VERSION);
+    encoded.write(prefix);
+    return new SealingOutputStream(encoded, key, prefix);
+  }
+
+  /**
+   * Returns a stream of the plaintext of Base64 text in the streaming format.
+   * Each segment is authenticated before any of its bytes are returned; a
+   * tampered, reordered or truncated stream fails with an {@link IOException}
+   * when the bad segment is reached.
+   *
+   * @param source the Base64 encoded ciphertext; line breaks are ignored
+   * @return the plaintext
+   * @throws IOException if the header cannot be read or has an unknown version
+   */
+  public InputStream decryptingStream(InputStream source) throws IOException {
+    InputStream decoded = Base64.getMimeDecoder().wrap(source);
+    byte[] header = decoded.readNBytes(1 + NONCE_PREFIX_LENGTH);
+    if (header.length < 1 + NONCE_PREFIX_LENGTH || header[0] != STREAM_VERSION) {
+      throw new IOException("Invalid encrypted stream header");
+    }
+    return new OpeningInputStream(decoded, key, Arrays.copyOfRange(header, 1, header.length));
+  }
+
+  private static byte[] segmentNonce(byte[] prefix, int index, boolean last) {
+    return ByteBuffer.allocate(NONCE_LENGTH)
+        .put(prefix)
+        .putInt(index)
+        .put((byte) (last ? 1 : 0))
+        .array();
+  }
+
+  private static Cipher newCipher() {
+    try {
+      return Cipher.getInstance(TRANSFORMATION);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+    }
+  }
+
+  /**
+   * Buffers one segment of plaintext and seals it once it is full, or as the
+   * final segment on close.
    */
-  public <T> T decryptJson(String encryptedData, Class<T> valueType) throws Exception {
-    String json = decrypt(encryptedData);
-    return mapper.readValue(json, valueType);
+  private static final class SealingOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final SecretKeySpec key;
+    private final byte[] prefix;
+    private final Cipher cipher = newCipher();
+    private final byte[] plain = new byte[SEGMENT_SIZE];
+    private final byte[] sealed = new byte[SEGMENT_SIZE + TAG_LENGTH];
+    private int length;
+    private int index;
+    private boolean closed;
+
+    SealingOutputStream(OutputStream out, SecretKeySpec key, byte[] prefix) {
+      this.out = out;
+      this.key = key;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+      while (len > 0) {
+        if (length == SEGMENT_SIZE) {
+          seal(false);
+        }
+        int n = Math.min(len, SEGMENT_SIZE - length);
+        System.arraycopy(b, off, plain, length, n);
+        length += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      if (length == SEGMENT_SIZE) {
+        seal(false);
+      }
+      seal(true);
+      closed = true;
+      out.close();
+    }
+
+    private void seal(boolean last) throws IOException {
+      try {
+        cipher.init(Cipher.ENCRYPT_MODE, key,
+            new GCMParameterSpec(TAG_BITS, segmentNonce(prefix, index++, last)));
+        int n = cipher.doFinal(plain, 0, length, sealed, 0);
+        out.write(sealed, 0, n);
+        length = 0;
+      } catch (GeneralSecurityException e) {
+        throw new IOException("Could not encrypt segment", e);
+      }
+    }
   }
 
+  /**
+   * Reads one sealed segment at a time, authenticates it and serves its
+   * plaintext. A short read marks the final segment; the end of the input
+   * right after a full segment means the stream was truncated.
+   */
+  private static final class OpeningInputStream extends InputStream {
+
+    private final InputStream in;
+    private final SecretKeySpec key;
+    private final byte[] prefix;
+    private final Cipher cipher = newCipher();
+    private final byte[] sealed = new byte[SEGMENT_SIZE + TAG_LENGTH];
+    private final byte[] plain = new byte[SEGMENT_SIZE];
+    private int position;
+    private int length;
+    private int index;
+    private boolean last;
+
+    OpeningInputStream(InputStream in, SecretKeySpec key, byte[] prefix) {
+      this.in = in;
+      this.key = key;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (position == length) {
+        if (last) {
+          return -1;
+        }
+        open();
+      }
+      int n = Math.min(len, length - position);
+      System.arraycopy(plain, position, b, off, n);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    private void open() throws IOException {
+      int n = in.readNBytes(sealed, 0, sealed.length);
+      last = n < sealed.length;
+      if (n < TAG_LENGTH) {
+        throw new IOException("Encrypted stream is truncated");
+      }
+      try {
+        cipher.init(Cipher.DECRYPT_MODE, key,
+            new GCMParameterSpec(TAG_BITS, segmentNonce(prefix, index++, last)));
+        length = cipher.doFinal(sealed, 0, n, plain, 0);
+        position = 0;
+      } catch (GeneralSecurityException e) {
+        throw new IOException("Invalid encrypted segment " + (index - 1), e);
+      }
+    }
+  }
 }
@@ -0,0 +1,67 @@
+package com.testing.ex.utils;
+
+import com.testing.ex.exception.PayloadTooLargeException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that fails with {@link PayloadTooLargeException} as soon as
+ * more than a fixed number of bytes is read, so an oversized request body is
+ * rejected without being buffered.
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+  private final long limit;
+  private long remaining;
+
+  /**
+   * Wraps the given stream.
+   *
+   * @param in    the stream to read from
+   * @param limit the maximum number of bytes that may be read
+   */
+  public LimitedInputStream(InputStream in, long limit) {
+    super(in);
+    this.limit = limit;
+    this.remaining = limit;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b >= 0) {
+      consume(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    // Read one byte past the limit so a body of exactly the limit is accepted.
+    int n = super.read(b, off, (int) Math.min(len, remaining + 1));
+    if (n > 0) {
+      consume(n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(Math.min(n, remaining + 1));
+    consume(skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  private void consume(long n) {
+    remaining -= n;
+    if (remaining < 0) {
+      throw new PayloadTooLargeException("Request body exceeds " + limit + " bytes");
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.testing.ex.utils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Price bands used by the price facet. Lower bounds are inclusive, upper
+ * bounds exclusive. The same bands are spelled out as SQL in
+ * {@link com.testing.ex.repos.ProductFacetRepository#PRICE_BAND_CASE} and in
+ * changeset 013; keep them in sync.
+ */
+public final class PriceBands {
+
+  private static final int[] UPPER_BOUNDS = {50, 100, 250, 500, 1000};
+
+  /**
+   * Band labels in ascending price order.
+   */
+  public static final List<String> LABELS =
+      List.of("0-50", "50-100", "100-250", "250-500", "500-1000", "1000+");
+
+  private PriceBands() {
+  }
+
+  /**
+   * Returns the label of the band the price falls into.
+   *
+   * @param price a product price
+   * @return the band label
+   */
+  public static String of(BigDecimal price) {
+    for (int i = 0; i < UPPER_BOUNDS.length; i++) {
+      if (price.compareTo(BigDecimal.valueOf(UPPER_BOUNDS[i])) < 0) {
+        return LABELS.get(i);
+      }
+    }
+    return LABELS.get(UPPER_BOUNDS.length);
+  }
+}
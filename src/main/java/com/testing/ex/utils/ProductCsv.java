@@ -0,0 +1,121 @@
+package com.testing.ex.utils;
+
+import com.testing.ex.domain.dto.response.ProductResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Formats products as RFC 4180 CSV lines for the catalog export. Features are
+ * flattened into a single column as {@code key=value} pairs separated by
+ * {@code ;}, sorted by key so the output is stable. Feature keys and values
+ * are free text, so a {@code \}, {@code ;} or {@code =} inside them is
+ * escaped with a preceding {@code \}; {@link #parseFeatures(String)} reverses
+ * the encoding.
+ */
+public final class ProductCsv {
+
+  /**
+   * Header line, terminated by CRLF.
+   */
+  public static final String HEADER = "id,name,sku,category,price,description,features\r\n";
+
+  private ProductCsv() {
+  }
+
+  /**
+   * Formats one product as a CSV line terminated by CRLF.
+   *
+   * @param product the product to format
+   * @return the CSV line
+   */
+  public static String line(ProductResponse product) {
+    StringBuilder sb = new StringBuilder(128);
+    sb.append(product.id()).append(',');
+    field(sb, product.name()).append(',');
+    field(sb, product.sku()).append(',');
+    field(sb, product.category()).append(',');
+    sb.append(product.price() == null ? "" : product.price().toPlainString()).append(',');
+    field(sb, product.description()).append(',');
+    field(sb, features(product.features()));
+    return sb.append("\r\n").toString();
+  }
+
+  private static String features(Map<String, String> features) {
+    if (features == null || features.isEmpty()) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, String> feature : new TreeMap<>(features).entrySet()) {
+      if (!sb.isEmpty()) {
+        sb.append(';');
+      }
+      escape(sb, feature.getKey()).append('=');
+      escape(sb, feature.getValue());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Parses a features column back into its key/value pairs.
+   *
+   * @param column the unquoted features column, may be null or empty
+   * @return the features in column order
+   * @throws IllegalArgumentException if a pair has no unescaped {@code =}
+   */
+  public static Map<String, String> parseFeatures(String column) {
+    Map<String, String> features = new LinkedHashMap<>();
+    if (column == null || column.isEmpty()) {
+      return features;
+    }
+    StringBuilder token = new StringBuilder();
+    String key = null;
+    for (int i = 0; i < column.length(); i++) {
+      char c = column.charAt(i);
+      if (c == '\\' && i + 1 < column.length()) {
+        token.append(column.charAt(++i));
+      } else if (c == '=' && key == null) {
+        key = token.toString();
+        token.setLength(0);
+      } else if (c == ';') {
+        putFeature(features, key, token);
+        key = null;
+      } else {
+        token.append(c);
+      }
+    }
+    putFeature(features, key, token);
+    return features;
+  }
+
+  private static void putFeature(Map<String, String> features, String key, StringBuilder value) {
+    if (key == null) {
+      throw new IllegalArgumentException("Feature without '=': " + value);
+    }
+    features.put(key, value.toString());
+    value.setLength(0);
+  }
+
+  private static StringBuilder escape(StringBuilder sb, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\' || c == ';' || c == '=') {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    return sb;
+  }
+
+  private static StringBuilder field(StringBuilder sb, String value) {
+    if (value == null) {
+      return sb;
+    }
+    boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    if (!quote) {
+      return sb.append(value);
+    }
+    return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+}
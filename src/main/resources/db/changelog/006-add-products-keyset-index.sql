@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:006
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='products' AND INDEX_NAME='ix_products_tenant_created_id';
+
+-- Serves keyset pagination: WHERE tenant_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+CREATE INDEX ix_products_tenant_created_id ON products (tenant_id, created_at, id);
+
+--rollback DROP INDEX ix_products_tenant_created_id ON products;
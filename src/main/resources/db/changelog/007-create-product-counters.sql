@@ -0,0 +1,18 @@
+--liquibase formatted sql
+--changeset arsh:007
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'product_counters';
+
+-- Per-tenant product totals, maintained by the create/delete paths
+CREATE TABLE product_counters (
+                                  tenant_id VARCHAR(36) NOT NULL PRIMARY KEY,
+                                  product_count BIGINT NOT NULL,
+                                  updated_at DATETIME NOT NULL
+);
+
+INSERT INTO product_counters (tenant_id, product_count, updated_at)
+SELECT tenant_id, COUNT(*), NOW()
+FROM products
+GROUP BY tenant_id;
+
+--rollback DROP TABLE product_counters;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:008
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='products' AND INDEX_NAME='ix_products_tenant_updated';
+
+-- Resolves SELECT MAX(updated_at) ... WHERE tenant_id = ? with a single index dive (ETag validation)
+CREATE INDEX ix_products_tenant_updated ON products (tenant_id, updated_at);
+
+--rollback DROP INDEX ix_products_tenant_updated ON products;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:009
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='products' AND INDEX_NAME='ft_products_name_description';
+
+-- Serves product search: MATCH(name, description) AGAINST (? IN BOOLEAN MODE), ranked by relevance
+CREATE FULLTEXT INDEX ft_products_name_description ON products (name, description);
+
+--rollback DROP INDEX ft_products_name_description ON products;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:010
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='product_features' AND INDEX_NAME='ix_product_features_key_value';
+
+-- Serves feature filters: WHERE feature_key = ? AND features = ? as an index-only range returning product ids
+CREATE INDEX ix_product_features_key_value ON product_features (feature_key, features, product_id);
+
+--rollback DROP INDEX ix_product_features_key_value ON product_features;
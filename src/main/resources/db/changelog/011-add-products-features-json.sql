@@ -0,0 +1,19 @@
+--liquibase formatted sql
+--changeset arsh:011
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME='products' AND COLUMN_NAME='features_json';
+
+-- Features as one JSON document per product; NULL until the product is backfilled (see 012)
+ALTER TABLE products ADD COLUMN features_json JSON NULL;
+
+-- Hot feature keys exposed as indexed virtual columns for tenant-scoped filtering
+ALTER TABLE products
+    ADD COLUMN feature_ram VARCHAR(255) GENERATED ALWAYS AS (JSON_UNQUOTE(JSON_EXTRACT(features_json, '$.ram'))) VIRTUAL,
+    ADD COLUMN feature_storage VARCHAR(255) GENERATED ALWAYS AS (JSON_UNQUOTE(JSON_EXTRACT(features_json, '$.storage'))) VIRTUAL;
+
+CREATE INDEX ix_products_tenant_feature_ram ON products (tenant_id, feature_ram);
+CREATE INDEX ix_products_tenant_feature_storage ON products (tenant_id, feature_storage);
+
+--rollback DROP INDEX ix_products_tenant_feature_storage ON products;
+--rollback DROP INDEX ix_products_tenant_feature_ram ON products;
+--rollback ALTER TABLE products DROP COLUMN feature_storage, DROP COLUMN feature_ram, DROP COLUMN features_json;
@@ -0,0 +1,33 @@
+--liquibase formatted sql
+--changeset arsh:013
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'product_facets';
+
+-- Per-tenant product counts by category and price band, maintained by the product write paths
+CREATE TABLE product_facets (
+                                tenant_id VARCHAR(36) NOT NULL,
+                                facet VARCHAR(20) NOT NULL,
+                                bucket VARCHAR(60) NOT NULL,
+                                product_count BIGINT NOT NULL,
+                                updated_at DATETIME NOT NULL,
+                                PRIMARY KEY (tenant_id, facet, bucket)
+);
+
+INSERT INTO product_facets (tenant_id, facet, bucket, product_count, updated_at)
+SELECT tenant_id, 'category', category, COUNT(*), NOW()
+FROM products
+GROUP BY tenant_id, category;
+
+INSERT INTO product_facets (tenant_id, facet, bucket, product_count, updated_at)
+SELECT tenant_id, 'price', band, COUNT(*), NOW()
+FROM (SELECT tenant_id,
+             CASE WHEN price < 50 THEN '0-50'
+                  WHEN price < 100 THEN '50-100'
+                  WHEN price < 250 THEN '100-250'
+                  WHEN price < 500 THEN '250-500'
+                  WHEN price < 1000 THEN '500-1000'
+                  ELSE '1000+' END AS band
+      FROM products) banded
+GROUP BY tenant_id, band;
+
+--rollback DROP TABLE product_facets;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:015
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='products' AND INDEX_NAME='ix_products_tenant_category_price';
+
+-- Serves WHERE tenant_id = ? AND category = ? [AND price BETWEEN ? AND ?] ORDER BY price, id
+CREATE INDEX ix_products_tenant_category_price ON products (tenant_id, category, price, id);
+
+--rollback DROP INDEX ix_products_tenant_category_price ON products;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset arsh:016
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_NAME='products' AND INDEX_NAME='ix_products_tenant_category_created';
+
+-- Serves WHERE tenant_id = ? AND category = ? [AND created_at BETWEEN ? AND ?] ORDER BY created_at, id
+CREATE INDEX ix_products_tenant_category_created ON products (tenant_id, category, created_at, id);
+
+--rollback DROP INDEX ix_products_tenant_category_created ON products;
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset arsh:017
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'refresh_tokens';
+
+-- Rotating refresh tokens; only an HMAC-SHA256 of each token is stored and looked up by the unique index
+CREATE TABLE refresh_tokens (
+                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                user_id BIGINT NOT NULL,
+                                token_hash CHAR(43) NOT NULL,
+                                expires_at DATETIME NOT NULL,
+                                revoked_at DATETIME NULL,
+                                created_at DATETIME NOT NULL,
+                                CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+                                CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_refresh_tokens_user_expires ON refresh_tokens (user_id, expires_at);
+
+--rollback DROP TABLE refresh_tokens;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+--changeset arsh:018
+--preconditions onFail:MARK_RAN onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'products' AND column_name = 'version';
+
+-- updated_at has second precision, so two writes in the same second looked identical to the
+-- ETags; products get an optimistic-lock counter and tenants a catalog counter bumped on every write
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE product_counters ADD COLUMN catalog_version BIGINT NOT NULL DEFAULT 0;
+
+--rollback ALTER TABLE product_counters DROP COLUMN catalog_version;
+--rollback ALTER TABLE products DROP COLUMN version;
@@ -0,0 +1,79 @@
+package com.testing.ex.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import com.testing.ex.utils.EncryptionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of encrypting a product response: the previous per-call AES/ECB
+ * path (new key spec, new cipher, String and Base64 copies) against the
+ * AES-GCM engine in {@link EncryptionUtils}.
+ *
+ * <p>Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout) com.testing.ex.benchmark.EncryptionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EncryptionBenchmark {
+
+    private static final String KEY = "s8Hd#29pQmF@l3Kv";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private EncryptionUtils engine;
+    private ProductResponse product;
+
+    @Setup
+    public void setup() {
+        engine = new EncryptionUtils(KEY, mapper);
+        product = new ProductResponse(42L, "Pixel 9 Pro", "PX-9-PRO", "phones",
+                new BigDecimal("999.00"), "Flagship phone with a 6.3 inch display",
+                Map.of("ram", "16GB", "storage", "256GB", "color", "obsidian"));
+    }
+
+    @Benchmark
+    public String legacyEcb() throws Exception {
+        String json = mapper.writeValueAsString(product);
+        SecretKeySpec key = new SecretKeySpec(KEY.getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(json.getBytes()));
+    }
+
+    @Benchmark
+    public String gcmEngine() {
+        return engine.encryptJson(product);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EncryptionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
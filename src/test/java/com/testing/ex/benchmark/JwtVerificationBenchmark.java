@@ -0,0 +1,102 @@
+package com.testing.ex.benchmark;
+
+import com.testing.ex.domain.entity.User;
+import com.testing.ex.security.Hs256TokenVerifier;
+import com.testing.ex.security.TestingUserDetails;
+import com.testing.ex.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying a bearer token: the previous per-request jjwt path (key
+ * decoded and parser built per call, exceptions for rejections), the
+ * byte-level {@link Hs256TokenVerifier}, and {@link JwtServiceImpl}, which
+ * adds the verified-claims cache in front of it.
+ *
+ * <p>Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout) com.testing.ex.benchmark.JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "6Rk8dVjG0tM1FZT7nLqXztdVd7y9hTqY3FjXZ3qH1Nc=";
+
+    @Param({"valid", "expired", "forged", "malformed"})
+    private String kind;
+
+    private String token;
+    private Hs256TokenVerifier verifier;
+    private JwtServiceImpl service;
+
+    @Setup
+    public void setup() {
+        TestingUserDetails user = new TestingUserDetails(User.builder()
+                .id(7L).username("testuser").email("testing@testmail.com").enabled(true).build());
+        service = new JwtServiceImpl(SECRET, 3_600_000, 10_000, new SimpleMeterRegistry());
+        verifier = new Hs256TokenVerifier(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)));
+        String valid = service.generateToken(user);
+        token = switch (kind) {
+            case "valid" -> valid;
+            case "expired" -> new JwtServiceImpl(SECRET, -1_000, 1, new SimpleMeterRegistry())
+                    .generateToken(user);
+            case "forged" -> valid.substring(0, valid.length() - 4) + "AAAA";
+            default -> "garbage-" + "x".repeat(200);
+        };
+    }
+
+    @Benchmark
+    public Object legacyJjwt() {
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Claims leanVerifier() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims cachedService() {
+        return service.verifyToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
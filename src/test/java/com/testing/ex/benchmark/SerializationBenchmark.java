@@ -0,0 +1,99 @@
+package com.testing.ex.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a page of product responses as JSON, CBOR and Smile, with
+ * mappers configured like the application's. The encoded size of each page
+ * is printed once per trial, so one run reports both CPU time and bytes on
+ * the wire.
+ *
+ * <p>Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout) com.testing.ex.benchmark.SerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private PageImpl<ProductResponse> page;
+
+    @Setup
+    public void setup() throws Exception {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+        List<ProductResponse> products = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            products.add(new ProductResponse((long) i, "Pixel " + i + " Pro", "PX-" + i,
+                    i % 3 == 0 ? "phones" : "tablets",
+                    new BigDecimal(i * 37 % 1000 + ".99"), "Flagship device number " + i,
+                    Map.of("ram", (8 << i % 2) + "GB", "storage", "256GB", "color", "obsidian")));
+        }
+        page = new PageImpl<>(products,
+                PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), 10_000);
+
+        System.out.printf("%nbytes per page of %d: json=%d cbor=%d smile=%d%n", pageSize,
+                json.writeValueAsBytes(page).length, cbor.writeValueAsBytes(page).length,
+                smile.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cbor.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smile.writeValueAsBytes(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.testing.ex.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductCiphertextCache Tests")
+public class ProductCiphertextCacheTests {
+
+    private final ProductCiphertextCache cache = new ProductCiphertextCache(true, 1_000_000,
+            Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should serve the cached ciphertext of the same version")
+    void shouldCacheByVersion() {
+        AtomicInteger encryptions = new AtomicInteger();
+
+        cache.get(1L, 3L, () -> "v3-" + encryptions.incrementAndGet());
+        String second = cache.get(1L, 3L, () -> "v3-" + encryptions.incrementAndGet());
+
+        assertEquals("v3-1", second);
+        assertEquals(1, encryptions.get());
+    }
+
+    @Test
+    @DisplayName("Should never serve an older version's ciphertext after a write")
+    void shouldMissForNewerVersion() {
+        cache.get(1L, 3L, () -> "old");
+
+        String newer = cache.get(1L, 4L, () -> "new");
+
+        assertEquals("new", newer);
+    }
+}
@@ -0,0 +1,125 @@
+package com.testing.ex.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductResponseCache Tests")
+public class ProductResponseCacheTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private final Ticker ticker = now::get;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ProductResponseCache cache(boolean staleWhileRevalidate) {
+        return new ProductResponseCache(true, 1_000_000, Duration.ofMinutes(5),
+                staleWhileRevalidate, Duration.ofMinutes(1), meterRegistry, ticker);
+    }
+
+    private static ProductResponse product(long id) {
+        return new ProductResponse(id, "Phone " + id, "SKU-" + id, "phones",
+                BigDecimal.TEN, "desc", Map.of("ram", "8GB"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads of the same shape from cache")
+    void shouldCacheByTenantAndShape() {
+        ProductResponseCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+        ProductResponse second = cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+        cache.get("t2", "product:1", () -> product(loads.incrementAndGet()));
+
+        assertEquals(1L, second.id());
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop only the invalidated tenant's entries")
+    void shouldInvalidateTenant() {
+        ProductResponseCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+        cache.get("t2", "product:1", () -> product(loads.incrementAndGet()));
+
+        cache.invalidate("t1");
+        ProductResponse t1 = cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+        ProductResponse t2 = cache.get("t2", "product:1", () -> product(loads.incrementAndGet()));
+
+        assertEquals(3L, t1.id());
+        assertEquals(2L, t2.id());
+    }
+
+    @Test
+    @DisplayName("Should reload expired entries synchronously without stale-while-revalidate")
+    void shouldReloadAfterTtl() {
+        ProductResponseCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        ProductResponse reloaded = cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+
+        assertEquals(2L, reloaded.id());
+    }
+
+    @Test
+    @DisplayName("Should serve stale entry while reloading in the background")
+    void shouldServeStaleWhileRevalidating() throws InterruptedException {
+        ProductResponseCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5) + 1);
+        ProductResponse stale = cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+
+        assertEquals(1L, stale.id());
+        for (int i = 0; i < 100 && loads.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("products.cache.stale.served").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache when disabled")
+    void shouldBypassWhenDisabled() {
+        ProductResponseCache cache = new ProductResponseCache(false, 1_000_000, Duration.ofMinutes(5),
+                false, Duration.ZERO, meterRegistry, ticker);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+        cache.get("t1", "product:1", () -> product(loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should weigh responses by their content")
+    void shouldWeighBySize() {
+        ProductResponse small = product(1);
+        ProductResponse large = new ProductResponse(2L, "x".repeat(1000), "SKU", "phones",
+                BigDecimal.ONE, "y".repeat(1000), Map.of());
+
+        assertTrue(ProductResponseCache.weigh(large) > ProductResponseCache.weigh(small) + 3000);
+    }
+}
@@ -0,0 +1,56 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductFeatureFilterRepositoryImpl Tests")
+public class ProductFeatureFilterRepositoryImplTests {
+
+    @Test
+    @DisplayName("Should break ties by id in the direction of the last order")
+    void shouldFollowLastDirection() {
+        // Given
+        Sort sort = Sort.by(Sort.Order.asc("category"), Sort.Order.desc("price"));
+
+        // When
+        String orderBy = ProductFeatureFilterRepositoryImpl.orderBy(sort);
+
+        // Then
+        assertEquals(" ORDER BY p.category ASC, p.price DESC, p.id DESC", orderBy);
+    }
+
+    @Test
+    @DisplayName("Should map properties to columns through ProductSortKey")
+    void shouldMapSortKeyColumns() {
+        // Given
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+
+        // When
+        String orderBy = ProductFeatureFilterRepositoryImpl.orderBy(sort);
+
+        // Then
+        assertEquals(" ORDER BY p.created_at DESC, p.id DESC", orderBy);
+    }
+
+    @Test
+    @DisplayName("Should order by id ascending when unsorted")
+    void shouldOrderByIdWhenUnsorted() {
+        assertEquals(" ORDER BY p.id ASC", ProductFeatureFilterRepositoryImpl.orderBy(Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("Should reject a property that is not a ProductSortKey")
+    void shouldRejectUnknownProperty() {
+        // Given
+        Sort sort = Sort.by("description");
+
+        // When & Then
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> ProductFeatureFilterRepositoryImpl.orderBy(sort));
+        assertEquals("Unsupported sort property: description", exception.getMessage());
+    }
+}
@@ -0,0 +1,163 @@
+package com.testing.ex.repos;
+
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
+import com.testing.ex.domain.entity.Product;
+import com.testing.ex.exception.BadRequestException;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the filtered listing against sorts that are not served by an index
+ * by checking the plans of its queries against an in-memory database built
+ * from the entity indexes, which mirror the Liquibase changesets. H2 does not
+ * report when an equality prefix lets an index deliver the ORDER BY, so the
+ * plans are checked for the index whose columns are the equality predicates
+ * followed by the sort column; on MySQL the same plans show no filesort.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:listing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductFeatureStorage.class)
+@DisplayName("ProductListingRepositoryImpl Tests")
+public class ProductListingRepositoryImplTests {
+
+    private static final String TENANT = "tenant-1";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 60; i++) {
+            productRepository.save(Product.builder()
+                    .tenantId(i % 2 == 0 ? TENANT : "tenant-2")
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .category(i % 3 == 0 ? "phones" : "tablets")
+                    .price(BigDecimal.valueOf(100 + i))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String explain(ProductListingFilter filter, Sort sort) {
+        Query explain = entityManager.getEntityManager().createNativeQuery("EXPLAIN SELECT p.id"
+                + ProductListingRepositoryImpl.from(filter)
+                + ProductListingRepositoryImpl.orderBy(sort, filter));
+        return String.valueOf(ProductListingRepositoryImpl.bind(explain, TENANT, filter)
+                .getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Should scan the category and price index for a price-sorted category range")
+    void shouldUseCategoryPriceIndex() {
+        String plan = explain(new ProductListingFilter("phones", BigDecimal.ONE, BigDecimal.TEN,
+                null, null), Sort.by(Sort.Direction.DESC, "price"));
+
+        assertTrue(plan.contains("IX_PRODUCTS_TENANT_CATEGORY_PRICE"), plan);
+    }
+
+    @Test
+    @DisplayName("Should scan the price index for a price-sorted listing without category")
+    void shouldUsePriceIndex() {
+        String plan = explain(new ProductListingFilter(null, BigDecimal.ONE, null, null, null),
+                Sort.by("price"));
+
+        assertTrue(plan.contains("IX_PRODUCTS_TENANT_PRICE:"), plan);
+    }
+
+    @Test
+    @DisplayName("Should scan the category and creation index for a creation-sorted category range")
+    void shouldUseCategoryCreatedIndex() {
+        String plan = explain(new ProductListingFilter("phones", null, null,
+                LocalDateTime.now().minusDays(1), null), Sort.by("createdAt"));
+
+        assertTrue(plan.contains("IX_PRODUCTS_TENANT_CATEGORY_CREATED"), plan);
+    }
+
+    @Test
+    @DisplayName("Should scan the creation index for an unfiltered listing")
+    void shouldUseCreatedIndex() {
+        String plan = explain(new ProductListingFilter(null, null, null, null, null),
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        assertTrue(plan.contains("IX_PRODUCTS_TENANT_CREATED_ID"), plan);
+    }
+
+    @Test
+    @DisplayName("Should return the tenant's matching ids in sort order with a total")
+    void shouldFilterAndSort() {
+        Page<Long> page = productRepository.findIdsByTenantIdAndFilter(TENANT,
+                new ProductListingFilter("phones", BigDecimal.valueOf(110), BigDecimal.valueOf(150),
+                        null, null),
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price")));
+
+        // tenant-1 phones are i = 0, 6, 12, ... priced 100 + i: 112, 118, ..., 148 are in range
+        assertEquals(7, page.getTotalElements());
+        assertEquals(3, page.getContent().size());
+        assertEquals(BigDecimal.valueOf(148), priceOf(page.getContent().get(0)));
+        assertEquals(BigDecimal.valueOf(136), priceOf(page.getContent().get(2)));
+    }
+
+    @Test
+    @DisplayName("Should reject sort properties without an index")
+    void shouldRejectUnindexedSort() {
+        assertThrows(BadRequestException.class, () -> productRepository.findIdsByTenantIdAndFilter(
+                TENANT, new ProductListingFilter(null, null, null, null, null),
+                PageRequest.of(0, 10, Sort.by("description"))));
+    }
+
+    @Test
+    @DisplayName("Should reject sorts no index delivers under a category or price filter")
+    void shouldRejectUnindexedFilteredSort() {
+        for (String property : List.of("name", "sku", "updatedAt")) {
+            assertThrows(BadRequestException.class, () -> productRepository
+                    .findIdsByTenantIdAndFilter(TENANT, new ProductListingFilter("phones", null,
+                            null, null, null), PageRequest.of(0, 10, Sort.by(property))), property);
+            assertThrows(BadRequestException.class, () -> productRepository
+                    .findIdsByTenantIdAndFilter(TENANT, new ProductListingFilter(null,
+                            BigDecimal.ONE, null, null, null), PageRequest.of(0, 10,
+                            Sort.by(property))), property);
+        }
+    }
+
+    @Test
+    @DisplayName("Should accept name, sku and updatedAt sorts without a category or price filter")
+    void shouldAcceptUnfilteredSort() {
+        ProductListingFilter filter = new ProductListingFilter(null, null, null,
+                LocalDateTime.now().minusDays(1), null);
+
+        for (String property : List.of("name", "sku", "updatedAt")) {
+            assertDoesNotThrow(() -> productRepository.findIdsByTenantIdAndFilter(TENANT, filter,
+                    PageRequest.of(0, 10, Sort.by(property))), property);
+        }
+    }
+
+    private BigDecimal priceOf(Long id) {
+        return productRepository.findById(id).orElseThrow().getPrice().stripTrailingZeros();
+    }
+}
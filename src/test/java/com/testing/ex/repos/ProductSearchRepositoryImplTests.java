@@ -0,0 +1,51 @@
+package com.testing.ex.repos;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductSearchRepositoryImpl Tests")
+public class ProductSearchRepositoryImplTests {
+
+    @Test
+    @DisplayName("Should require every indexed term as a prefix")
+    void shouldRequireIndexedTerms() {
+        // Given
+        List<String> terms = List.of("wireless", "phone");
+
+        // When
+        String query = ProductSearchRepositoryImpl.booleanQuery(terms);
+
+        // Then
+        assertEquals("+wireless* +phone*", query);
+    }
+
+    @Test
+    @DisplayName("Should leave stopwords and short terms out of the query")
+    void shouldSkipUnindexedTerms() {
+        // Given
+        List<String> terms = List.of("a", "phone", "for", "tv", "the", "kids");
+
+        // When
+        String query = ProductSearchRepositoryImpl.booleanQuery(terms);
+
+        // Then
+        assertEquals("+phone* +kids*", query);
+    }
+
+    @Test
+    @DisplayName("Should return an empty query when no term is indexed")
+    void shouldReturnEmptyQueryWithoutIndexedTerms() {
+        // Given
+        List<String> terms = List.of("a", "of", "tv");
+
+        // When
+        String query = ProductSearchRepositoryImpl.booleanQuery(terms);
+
+        // Then
+        assertEquals("", query);
+    }
+}
@@ -0,0 +1,105 @@
+package com.testing.ex.security;
+
+import com.testing.ex.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedPasswordEncoder Tests")
+public class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    /**
+     * Stand-in for BCrypt that blocks until released, so the pool can be saturated on demand.
+     */
+    private final PasswordEncoder blockingDelegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(blockingDelegate, 1, 1, Duration.ofSeconds(5),
+                Duration.ofSeconds(3), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash and verify on the pool")
+    void shouldDelegate() {
+        release.countDown();
+
+        assertEquals("hash:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hash:secret"));
+        assertEquals(2, meterRegistry.get("auth.password.hash").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should reject with Retry-After once the thread and queue are taken")
+    void shouldRejectWhenSaturated() throws Exception {
+        // Given: one call running and one queued
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> encoder.encode("c"));
+
+        // Then
+        assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should give up on a call that waits longer than the maximum wait")
+    void shouldTimeOut() {
+        BoundedPasswordEncoder impatient = new BoundedPasswordEncoder(blockingDelegate, 1, 1,
+                Duration.ofMillis(50), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        try {
+            assertThrows(ServiceOverloadedException.class, () -> impatient.encode("slow"));
+        } finally {
+            release.countDown();
+            impatient.shutdown();
+        }
+    }
+}
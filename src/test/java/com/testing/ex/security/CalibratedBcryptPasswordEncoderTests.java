@@ -0,0 +1,60 @@
+package com.testing.ex.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CalibratedBcryptPasswordEncoder Tests")
+public class CalibratedBcryptPasswordEncoderTests {
+
+    @Test
+    @DisplayName("Should read the cost of BCrypt hashes only")
+    void shouldReadCost() {
+        String hash = new CalibratedBcryptPasswordEncoder(5, 0).encode("secret");
+
+        assertEquals(5, CalibratedBcryptPasswordEncoder.costOf(hash));
+        assertEquals(12, CalibratedBcryptPasswordEncoder.costOf("$2a$12$abc"));
+        assertEquals(-1, CalibratedBcryptPasswordEncoder.costOf("{noop}secret"));
+        assertEquals(-1, CalibratedBcryptPasswordEncoder.costOf(null));
+    }
+
+    @Test
+    @DisplayName("Should ask for a re-hash in both directions beyond the tolerance")
+    void shouldUpgradeAndDowngrade() {
+        CalibratedBcryptPasswordEncoder encoder = new CalibratedBcryptPasswordEncoder(12, 1);
+
+        assertTrue(encoder.upgradeEncoding("$2a$10$abc"));
+        assertTrue(encoder.upgradeEncoding("$2a$14$abc"));
+        assertFalse(encoder.upgradeEncoding("$2a$11$abc"));
+        assertFalse(encoder.upgradeEncoding("$2a$13$abc"));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    @DisplayName("Should pick the cost closest to the target within bounds")
+    void shouldPickClosestCost() {
+        long probe = TimeUnit.MILLISECONDS.toNanos(60);
+
+        assertEquals(12, CalibratedBcryptPasswordEncoder.costFor(
+                TimeUnit.MILLISECONDS.toNanos(250), probe, 10, 14));
+        assertEquals(10, CalibratedBcryptPasswordEncoder.costFor(
+                TimeUnit.MILLISECONDS.toNanos(70), probe, 10, 14));
+        assertEquals(14, CalibratedBcryptPasswordEncoder.costFor(
+                TimeUnit.SECONDS.toNanos(10), probe, 10, 14));
+        assertEquals(10, CalibratedBcryptPasswordEncoder.costFor(1, probe, 10, 14));
+    }
+
+    @Test
+    @DisplayName("Should calibrate to a usable encoder")
+    void shouldCalibrate() {
+        CalibratedBcryptPasswordEncoder encoder = CalibratedBcryptPasswordEncoder.calibrated(
+                Duration.ofMillis(1), 4, 6, 0);
+
+        assertTrue(encoder.getCost() >= 4 && encoder.getCost() <= 6);
+        assertTrue(encoder.matches("secret", encoder.encode("secret")));
+    }
+}
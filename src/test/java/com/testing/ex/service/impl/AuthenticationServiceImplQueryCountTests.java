@@ -0,0 +1,116 @@
+package com.testing.ex.service.impl;
+
+import com.testing.ex.cache.TakenIdentityFilter;
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.dto.request.LoginUserDto;
+import com.testing.ex.domain.entity.User;
+import com.testing.ex.repos.UserRepository;
+import com.testing.ex.security.CalibratedBcryptPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the login path against repeated user lookups by counting the JDBC
+ * statements Hibernate prepares per login against an in-memory database.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AuthenticationServiceImpl.class, AuthenticationServiceImplQueryCountTests.Encoder.class,
+        ProductFeatureStorage.class, TakenIdentityFilter.class, SimpleMeterRegistry.class})
+@DisplayName("AuthenticationServiceImpl Query Count Tests")
+public class AuthenticationServiceImplQueryCountTests {
+
+    private static final String EMAIL = "testing@testmail.com";
+    private static final String PASSWORD = "testing123";
+
+    @TestConfiguration
+    static class Encoder {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new CalibratedBcryptPasswordEncoder(4, 0);
+        }
+    }
+
+    @Autowired
+    private AuthenticationServiceImpl authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(User.builder()
+                .email(EMAIL)
+                .username("testuser")
+                .password(new CalibratedBcryptPasswordEncoder(4, 0).encode(PASSWORD))
+                .enabled(true)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsFor(Runnable call) {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private LoginUserDto login() {
+        return LoginUserDto.builder().email(EMAIL).password(PASSWORD).build();
+    }
+
+    @Test
+    @DisplayName("Should log in with exactly one users query")
+    void shouldLoginWithSingleUserQuery() {
+        UserDetails[] result = new UserDetails[1];
+
+        long statements = statementsFor(() -> result[0] = authenticationService.authenticate(login()));
+
+        assertEquals(1, statements);
+        assertEquals(EMAIL, result[0].getUsername());
+    }
+
+    @Test
+    @DisplayName("Should add only the update when the hash is re-encoded")
+    void shouldRehashWithSingleUserQuery() {
+        User stored = userRepository.findByEmail(EMAIL).orElseThrow();
+        stored.setPassword(new CalibratedBcryptPasswordEncoder(6, 0).encode(PASSWORD));
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = statementsFor(() -> authenticationService.authenticate(login()));
+
+        // select + update
+        assertEquals(2, statements);
+        assertEquals(4, CalibratedBcryptPasswordEncoder.costOf(
+                userRepository.findById(user.getId()).orElseThrow().getPassword()));
+    }
+}
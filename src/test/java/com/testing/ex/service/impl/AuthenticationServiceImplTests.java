@@ -1,9 +1,12 @@
 package com.testing.ex.service.impl;
 
+import com.testing.ex.cache.TakenIdentityFilter;
+import com.testing.ex.domain.dto.projection.UserIdentity;
 import com.testing.ex.domain.dto.request.LoginUserDto;
 import com.testing.ex.domain.dto.request.RegisterUserDto;
 import com.testing.ex.domain.dto.request.VerifyUserDto;
 import com.testing.ex.domain.entity.User;
+import com.testing.ex.exception.ConflictException;
 import com.testing.ex.repos.UserRepository;
 import com.testing.ex.security.TestingUserDetails;
 import org.junit.jupiter.api.*;
@@ -13,14 +16,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,13 +35,10 @@ public class AuthenticationServiceImplTests {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder encoder;
+    private PasswordEncoder encoder;
 
     @Mock
-    private AuthenticationManager authenticationManager;
-
-    @Mock
-    private UserDetailsService userDetailsService;
+    private TakenIdentityFilter identityFilter;
 
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
@@ -87,10 +86,11 @@ public class AuthenticationServiceImplTests {
         @DisplayName("Should register a new user successfully")
         void testSignup_Success() {
             // Given
-            Mockito.when(userRepository.existsByEmail(registerRequest.getEmail()))
-                    .thenReturn(false);
-            Mockito.when(userRepository.existsByUsername(registerRequest.getUsername()))
-                    .thenReturn(false);
+            Mockito.when(identityFilter.mightBeTaken(registerRequest.getEmail(), registerRequest.getUsername()))
+                    .thenReturn(true);
+            Mockito.when(userRepository.findIdentitiesByEmailOrUsername(registerRequest.getEmail(),
+                            registerRequest.getUsername()))
+                    .thenReturn(List.of());
             Mockito.when(encoder.encode(registerRequest.getPassword()))
                     .thenReturn("encodedPass");
             Mockito.when(userRepository.save(ArgumentMatchers.any(User.class)))
@@ -104,6 +104,28 @@ public class AuthenticationServiceImplTests {
             assertEquals(testUser, result);
             Mockito.verify(userRepository, Mockito.times(1))
                     .save(ArgumentMatchers.any(User.class));
+            Mockito.verify(identityFilter, Mockito.times(1))
+                    .add(registerRequest.getEmail(), registerRequest.getUsername());
+        }
+
+        @Test
+        @DisplayName("Should skip the uniqueness query when the filter says both are free")
+        void testSignup_DefinitelyFree() {
+            // Given
+            Mockito.when(identityFilter.mightBeTaken(registerRequest.getEmail(), registerRequest.getUsername()))
+                    .thenReturn(false);
+            Mockito.when(encoder.encode(registerRequest.getPassword()))
+                    .thenReturn("encodedPass");
+            Mockito.when(userRepository.save(ArgumentMatchers.any(User.class)))
+                    .thenReturn(testUser);
+
+            // When
+            authenticationService.signup(registerRequest);
+
+            // Then
+            Mockito.verify(userRepository, Mockito.times(1))
+                    .save(ArgumentMatchers.any(User.class));
+            Mockito.verifyNoMoreInteractions(userRepository);
         }
 
         @Test
@@ -111,13 +133,17 @@ public class AuthenticationServiceImplTests {
         void testSignup_EmailAlreadyExists() {
 
             // Given
-            Mockito.when(userRepository.existsByEmail(registerRequest.getEmail()))
+            Mockito.when(identityFilter.mightBeTaken(registerRequest.getEmail(), registerRequest.getUsername()))
                     .thenReturn(true);
+            Mockito.when(userRepository.findIdentitiesByEmailOrUsername(registerRequest.getEmail(),
+                            registerRequest.getUsername()))
+                    .thenReturn(List.of(new UserIdentity(2L, "Testing@testmail.com", "other")));
 
             // When & Then
-            assertThrows(IllegalArgumentException.class,
+            ConflictException ex = assertThrows(ConflictException.class,
                     () -> authenticationService.signup(registerRequest));
 
+            assertEquals("Email already in use", ex.getMessage());
             Mockito.verify(userRepository, Mockito.never())
                     .save(Mockito.any());
 
@@ -128,28 +154,44 @@ public class AuthenticationServiceImplTests {
         @DisplayName("Should throw exception when username already exists")
         void testSignup_UsernameAlreadyExists() {
             // Given
-            Mockito.when(userRepository.existsByEmail(registerRequest.getEmail()))
-                    .thenReturn(false);
-            Mockito.when(userRepository.existsByUsername(registerRequest.getUsername()))
+            Mockito.when(identityFilter.mightBeTaken(registerRequest.getEmail(), registerRequest.getUsername()))
                     .thenReturn(true);
+            Mockito.when(userRepository.findIdentitiesByEmailOrUsername(registerRequest.getEmail(),
+                            registerRequest.getUsername()))
+                    .thenReturn(List.of(new UserIdentity(2L, "other@testmail.com", "testuser")));
 
             // When & Then
-            assertThrows(IllegalArgumentException.class,
+            ConflictException ex = assertThrows(ConflictException.class,
                     () -> authenticationService.signup(registerRequest));
 
+            assertEquals("Username already in use", ex.getMessage());
             Mockito.verify(userRepository, Mockito.times(1))
-                            .existsByEmail(Mockito.any());
+                            .findIdentitiesByEmailOrUsername(Mockito.any(), Mockito.any());
             Mockito.verify(userRepository, Mockito.never()).save(Mockito.any());
         }
 
+        @Test
+        @DisplayName("Should turn a unique constraint violation into a conflict")
+        void testSignup_ConstraintViolation() {
+            // Given
+            Mockito.when(encoder.encode(registerRequest.getPassword()))
+                    .thenReturn("encodedPass");
+            Mockito.when(userRepository.save(ArgumentMatchers.any(User.class)))
+                    .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+            // When & Then
+            ConflictException ex = assertThrows(ConflictException.class,
+                    () -> authenticationService.signup(registerRequest));
+
+            assertEquals("Email or username already in use", ex.getMessage());
+            Mockito.verify(identityFilter, Mockito.never())
+                    .add(Mockito.any(), Mockito.any());
+        }
+
         @Test
         @DisplayName("Should handle unexpected exceptions during signup")
         void testSignup_UnexpectedException() {
             // Given
-            Mockito.when(userRepository.existsByEmail(registerRequest.getEmail()))
-                    .thenReturn(false);
-            Mockito.when(userRepository.existsByUsername(registerRequest.getUsername()))
-                    .thenReturn(false);
             Mockito.when(encoder.encode(registerRequest.getPassword()))
                     .thenReturn("encodedPass");
             Mockito.when(userRepository.save(ArgumentMatchers.any(User.class)))
@@ -179,26 +221,41 @@ public class AuthenticationServiceImplTests {
             Mockito.when(userRepository.findByEmail(loginRequest.getEmail()))
                     .thenReturn(Optional.of(testUser));
 
-            Mockito.when(authenticationManager.authenticate(ArgumentMatchers.any()))
-                    .thenReturn(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-
-            UserDetails userDetails = new TestingUserDetails(testUser);
-            Mockito.when(userDetailsService.loadUserByUsername(loginRequest.getEmail()))
-                    .thenReturn(userDetails);
+            Mockito.when(encoder.matches(loginRequest.getPassword(), testUser.getPassword()))
+                    .thenReturn(true);
             // When
             UserDetails result = assertDoesNotThrow(() -> authenticationService.authenticate(loginRequest));
 
             // Then
             assertNotNull(result);
             assertEquals(testUser.getEmail(), result.getUsername());
+            assertSame(testUser, ((TestingUserDetails) result).getUser());
 
-            Mockito.verify(authenticationManager, Mockito.times(1))
-                    .authenticate(ArgumentMatchers.any());
+            Mockito.verify(encoder, Mockito.times(1))
+                    .matches(loginRequest.getPassword(), testUser.getPassword());
             Mockito.verify(userRepository, Mockito.times(1))
                     .findByEmail(testUser.getEmail());
-            Mockito.verify(userDetailsService, Mockito.times(1))
-                    .loadUserByUsername(testUser.getEmail());
-            Mockito.verifyNoMoreInteractions(userRepository, authenticationManager, userDetailsService);
+            Mockito.verifyNoMoreInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("Should re-hash the password when the stored cost is outdated")
+        void testLogin_RehashesOutdatedHash() {
+            // Given
+            testUser.setEnabled(true);
+            testUser.setPassword("$2a$08$oldhash");
+            Mockito.when(userRepository.findByEmail(loginRequest.getEmail()))
+                    .thenReturn(Optional.of(testUser));
+            Mockito.when(encoder.matches(loginRequest.getPassword(), "$2a$08$oldhash")).thenReturn(true);
+            Mockito.when(encoder.upgradeEncoding("$2a$08$oldhash")).thenReturn(true);
+            Mockito.when(encoder.encode(loginRequest.getPassword())).thenReturn("$2a$12$newhash");
+
+            // When
+            assertDoesNotThrow(() -> authenticationService.authenticate(loginRequest));
+
+            // Then
+            assertEquals("$2a$12$newhash", testUser.getPassword());
+            Mockito.verify(userRepository, Mockito.times(1)).save(testUser);
         }
 
         @Test
@@ -217,8 +274,8 @@ public class AuthenticationServiceImplTests {
 
             Mockito.verify(userRepository, Mockito.times(1))
                     .findByEmail(testUser.getEmail());
-            Mockito.verify(userDetailsService, Mockito.never())
-                    .loadUserByUsername(testUser.getEmail());
+            Mockito.verify(encoder, Mockito.never())
+                    .matches(ArgumentMatchers.any(), ArgumentMatchers.any());
         }
 
         @Test
@@ -229,9 +286,8 @@ public class AuthenticationServiceImplTests {
             Mockito.when(userRepository.findByEmail(loginRequest.getEmail()))
                     .thenReturn(Optional.of(testUser));
 
-            Mockito.doThrow(BadCredentialsException.class)
-                    .when(authenticationManager)
-                    .authenticate(ArgumentMatchers.any());
+            Mockito.when(encoder.matches(loginRequest.getPassword(), testUser.getPassword()))
+                    .thenReturn(false);
 
             // When
             BadCredentialsException ex = assertThrows(BadCredentialsException.class,
@@ -239,12 +295,11 @@ public class AuthenticationServiceImplTests {
 
             // Then
             assertEquals("Invalid username or password", ex.getMessage());
-            Mockito.verify(authenticationManager, Mockito.times(1))
-                    .authenticate(ArgumentMatchers.any());
+            Mockito.verify(encoder, Mockito.times(1))
+                    .matches(loginRequest.getPassword(), testUser.getPassword());
             Mockito.verify(userRepository, Mockito.times(1))
                     .findByEmail(testUser.getEmail());
-            Mockito.verify(userDetailsService, Mockito.never())
-                    .loadUserByUsername(testUser.getEmail());
+            Mockito.verifyNoMoreInteractions(userRepository);
         }
 
         @Test
@@ -255,7 +310,7 @@ public class AuthenticationServiceImplTests {
             Mockito.when(userRepository.findByEmail(loginRequest.getEmail()))
                     .thenReturn(Optional.of(testUser));
 
-            Mockito.when(authenticationManager.authenticate(ArgumentMatchers.any()))
+            Mockito.when(encoder.matches(loginRequest.getPassword(), testUser.getPassword()))
                     .thenThrow(new RuntimeException("Authentication error"));
 
             // When
@@ -264,12 +319,11 @@ public class AuthenticationServiceImplTests {
 
             // Then
             assertEquals("Authentication error", ex.getMessage());
-            Mockito.verify(authenticationManager, Mockito.times(1))
-                    .authenticate(ArgumentMatchers.any());
+            Mockito.verify(encoder, Mockito.times(1))
+                    .matches(loginRequest.getPassword(), testUser.getPassword());
             Mockito.verify(userRepository, Mockito.times(1))
                     .findByEmail(testUser.getEmail());
-            Mockito.verify(userDetailsService, Mockito.never())
-                    .loadUserByUsername(testUser.getEmail());
+            Mockito.verifyNoMoreInteractions(userRepository);
         }
     }
 
@@ -0,0 +1,109 @@
+package com.testing.ex.service.impl;
+
+import com.testing.ex.domain.entity.User;
+import com.testing.ex.security.TestingUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtServiceImpl Tests")
+public class JwtServiceImplTests {
+
+    private static final String SECRET = "6Rk8dVjG0tM1FZT7nLqXztdVd7y9hTqY3FjXZ3qH1Nc=";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtServiceImpl jwtService;
+    private TestingUserDetails userDetails;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtServiceImpl(SECRET, 3_600_000, 100, meterRegistry);
+        userDetails = new TestingUserDetails(User.builder()
+                .id(7L)
+                .username("testuser")
+                .email("testing@testmail.com")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeat tokens from the cache")
+    void shouldCacheVerifiedClaims() {
+        // Given
+        String token = jwtService.generateToken(userDetails);
+
+        // When
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        // Then
+        assertEquals("testing@testmail.com", first.getSubject());
+        assertEquals(7L, first.get("userId", Long.class));
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "jwt-claims").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should accept tokens signed by jjwt with the same key")
+    void shouldAcceptTokensOfTheReferenceImplementation() {
+        // Given
+        String token = Jwts.builder()
+                .setSubject("other@testmail.com")
+                .claim("userId", 9)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // When
+        Claims claims = jwtService.verifyToken(token);
+
+        // Then
+        assertNotNull(claims);
+        assertEquals("other@testmail.com", claims.getSubject());
+        assertEquals(9L, claims.get("userId", Long.class));
+    }
+
+    @Test
+    @DisplayName("Should reject forged and malformed tokens without caching them")
+    void shouldRejectForgedTokens() {
+        // Given
+        String token = jwtService.generateToken(userDetails);
+        String forged = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        String[] rejected = {forged, forged, "not.a.token", "", "Bearer", "a.b.c.d",
+            token.replace('.', '!'), token + "x", "x".repeat(5000)};
+
+        // When & Then
+        for (String candidate : rejected) {
+            assertNull(jwtService.verifyToken(candidate), candidate);
+        }
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(forged));
+        assertEquals(0.0, meterRegistry.get("cache.size").tag("cache", "jwt-claims").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredTokens() {
+        // Given
+        JwtServiceImpl expiring = new JwtServiceImpl(SECRET, -1_000, 100, new SimpleMeterRegistry());
+        String token = expiring.generateToken(userDetails);
+
+        // When & Then
+        assertNull(expiring.verifyToken(token));
+        assertFalse(expiring.validateToken(token));
+    }
+}
@@ -0,0 +1,328 @@
+package com.testing.ex.service.impl;
+
+import com.testing.ex.cache.ProductResponseCache;
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.dto.request.CreateProductRequest;
+import com.testing.ex.domain.dto.request.UpdateProductRequest;
+import com.testing.ex.domain.dto.response.FacetCount;
+import com.testing.ex.domain.dto.response.ProductBatchResponse;
+import com.testing.ex.domain.dto.response.ProductFacetsResponse;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import com.testing.ex.domain.entity.Product;
+import com.testing.ex.repos.ProductCounterRepository;
+import com.testing.ex.repos.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the listing read path against N+1 regressions by counting the JDBC
+ * statements Hibernate prepares per service call against an in-memory database.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:products;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "products.cache.enabled=false"
+})
+@Import({ProductServiceImpl.class, ProductResponseCache.class, SimpleMeterRegistry.class,
+        LocalValidatorFactoryBean.class, ProductFeatureStorage.class})
+@DisplayName("ProductServiceImpl Query Count Tests")
+public class ProductServiceImplQueryCountTests {
+
+    private static final String TENANT = "tenant-1";
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCounterRepository productCounterRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 150; i++) {
+            productRepository.save(Product.builder()
+                    .tenantId(TENANT)
+                    .name("Product " + i)
+                    .sku("SKU-" + i)
+                    .category("phones")
+                    .price(BigDecimal.valueOf(100 + i))
+                    .features(Map.of("ram", "8GB", "storage", i + "GB"))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsFor(Runnable call) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Should list a page with a fixed number of statements regardless of page size")
+    void shouldListPageWithConstantStatementCount() {
+        PageRequest small = PageRequest.of(0, 10, Sort.by("createdAt"));
+        PageRequest large = PageRequest.of(0, 100, Sort.by("createdAt"));
+
+        long smallPage = statementsFor(() -> productService.getAllByUserId(TENANT, small));
+        entityManager.clear();
+        long largePage = statementsFor(() -> productService.getAllByUserId(TENANT, large));
+
+        // page select + count + one batched feature select
+        assertEquals(3, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    @DisplayName("Should hydrate features of every product on the page")
+    void shouldHydrateFeatures() {
+        Page<ProductResponse> page = productService.getAllByUserId(TENANT, PageRequest.of(0, 100));
+
+        assertEquals(100, page.getContent().size());
+        page.getContent().forEach(p -> assertEquals("8GB", p.features().get("ram")));
+    }
+
+    @Test
+    @DisplayName("Should scroll a keyset page with a fixed number of statements")
+    void shouldScrollWithConstantStatementCount() {
+        long statements = statementsFor(() -> productService.getAllByUserIdAfter(TENANT, null, 100));
+
+        // keyset select + one batched feature select
+        assertEquals(2, statements);
+    }
+
+    @Test
+    @DisplayName("Should serve read endpoints without loading managed entities")
+    void shouldNotLoadEntitiesOnReadPath() {
+        Long productId = productService.getAllByUserIdAfter(TENANT, null, 1).content().get(0).id();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        productService.getAllByUserId(TENANT, PageRequest.of(0, 100));
+        productService.getProductByIdAndUserId(productId, TENANT);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should insert a bulk request in JDBC batches")
+    void shouldBatchBulkInserts() {
+        List<CreateProductRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(new CreateProductRequest("Bulk " + i, "BULK-" + i, "phones",
+                    BigDecimal.TEN, null, Map.of("ram", "8GB", "color", "black")));
+        }
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        ProductBatchResponse result = productService.createProducts(TENANT, requests);
+
+        assertEquals(200, result.created());
+        // 200 products + 400 feature rows would be 600 inserts without batching
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should reprice a category with set-based updates and bump updatedAt")
+    void shouldRepriceWithoutLoadingEntities() {
+        Product before = productRepository.findAll().get(0);
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        long affected = productService.changePriceByCategory(TENANT, "phones", BigDecimal.TEN);
+        entityManager.clear();
+
+        assertEquals(150, affected);
+        // one id chunk select + its prices + one UPDATE + two price band adjustments
+        // + the catalog version bump
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        Product after = productRepository.findById(before.getId()).orElseThrow();
+        assertEquals(0, before.getPrice().multiply(new BigDecimal("1.1")).compareTo(after.getPrice()));
+        assertFalse(after.getUpdatedAt().isBefore(before.getUpdatedAt()));
+        assertEquals(before.getVersion() + 1, after.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should give two updates within the same second different versions")
+    void shouldVersionSameSecondUpdates() {
+        Long productId = productRepository.findAll().get(0).getId();
+        entityManager.clear();
+        long productBefore = productService.getProductVersion(productId, TENANT);
+        long listingBefore = productService.getListingVersion(TENANT).version();
+
+        productService.updateProduct(TENANT, productId,
+                new UpdateProductRequest("First", null, null, null, null, null));
+        entityManager.flush();
+        entityManager.clear();
+        long productFirst = productService.getProductVersion(productId, TENANT);
+        long listingFirst = productService.getListingVersion(TENANT).version();
+        productService.updateProduct(TENANT, productId,
+                new UpdateProductRequest("Second", null, null, null, null, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(productFirst > productBefore);
+        assertTrue(productService.getProductVersion(productId, TENANT) > productFirst);
+        assertTrue(listingFirst > listingBefore);
+        assertTrue(productService.getListingVersion(TENANT).version() > listingFirst);
+    }
+
+    @Test
+    @DisplayName("Should delete products and their features by SKU without loading them")
+    void shouldDeleteBySkusWithoutLoadingEntities() {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            skus.add("SKU-" + i);
+        }
+        skus.add("UNKNOWN");
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        long affected = productService.deleteBySkus(TENANT, skus);
+        entityManager.clear();
+
+        assertEquals(10, affected);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(140, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should search with the LIKE fallback in a fixed number of statements")
+    void shouldSearchWithFallback() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<ProductResponse> result = productService.searchByUserId(TENANT, "PRODUCT 14", 20);
+
+        // search ids + rows by id + one batched feature select
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(12, result.size());
+        result.forEach(p -> assertTrue(p.name().contains("14"), p.name()));
+        assertEquals("8GB", result.get(0).features().get("ram"));
+        assertTrue(productService.searchByUserId("other-tenant", "product", 20).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter by several features starting from the rarest one")
+    void shouldFilterByFeatures() {
+        productCounterRepository.adjust(TENANT, 150);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Page<ProductResponse> page = productService.getAllByUserIdAndFeatures(TENANT,
+                Map.of("ram", "8GB", "storage", "14GB"), PageRequest.of(0, 20, Sort.by("createdAt")));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("Product 14", page.getContent().get(0).name());
+        // two probes + tenant count + filtered ids + rows by id + batched features
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should page feature-filtered products with a total count")
+    void shouldPageFeatureFilteredProducts() {
+        Page<ProductResponse> page = productService.getAllByUserIdAndFeatures(TENANT,
+                Map.of("ram", "8GB"), PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(150, page.getTotalElements());
+        assertEquals(20, page.getContent().size());
+        assertEquals(0, BigDecimal.valueOf(229).compareTo(page.getContent().get(0).price()));
+        assertTrue(productService.getAllByUserIdAndFeatures(TENANT, Map.of("ram", "16GB"),
+                PageRequest.of(0, 20, Sort.by("createdAt"))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read features from the JSON column without a feature query")
+    void shouldReadJsonFeaturesWithoutJoin() {
+        List<CreateProductRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(new CreateProductRequest("Json " + i, "JSON-" + i, "tablets",
+                    BigDecimal.ONE, null, Map.of("ram", "4GB")));
+        }
+        productService.createProducts("tenant-json", requests);
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        Page<ProductResponse> page = productService.getAllByUserId("tenant-json",
+                PageRequest.of(0, 20, Sort.by("createdAt")));
+
+        // page select + count, no feature select
+        assertEquals(2, statistics.getPrepareStatementCount());
+        page.getContent().forEach(p -> assertEquals(Map.of("ram", "4GB"), p.features()));
+    }
+
+    @Test
+    @DisplayName("Should keep facet counts equal to a rebuild across every write path")
+    void shouldMaintainFacetsIncrementally() {
+        productService.rebuildFacets(TENANT);
+        Long productId = productRepository.findIdsByTenantIdAndSkuIn(TENANT, List.of("SKU-149")).get(0);
+
+        productService.createProduct(TENANT, new CreateProductRequest("Cheap", "CHEAP-1", "cases",
+                new BigDecimal("9.99"), null, null));
+        productService.createProducts(TENANT, List.of(
+                new CreateProductRequest("Laptop", "LAPTOP-1", "laptops", new BigDecimal("1499"), null, null),
+                new CreateProductRequest("Tablet", "TABLET-1", "tablets", new BigDecimal("499.99"), null, null)));
+        productService.updateProduct(TENANT, productId,
+                UpdateProductRequest.builder().category("refurbished").price(new BigDecimal("60")).build());
+        productService.changePriceByCategory(TENANT, "phones", BigDecimal.valueOf(50));
+        productService.deleteBySkus(TENANT, List.of("SKU-100", "SKU-101", "CHEAP-1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        ProductFacetsResponse maintained = productService.getFacetsByUserId(TENANT);
+        // one primary key range scan of the facet table
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(maintained, productService.rebuildFacets(TENANT));
+        assertEquals(4, maintained.categories().size());
+        assertEquals("phones", maintained.categories().get(0).value());
+        assertEquals(147, maintained.categories().get(0).count());
+        assertEquals(List.of("50-100", "100-250", "250-500", "1000+"),
+                maintained.priceBands().stream().map(FacetCount::value).toList());
+    }
+}
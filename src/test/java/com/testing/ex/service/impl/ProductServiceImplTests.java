@@ -1,22 +1,55 @@
 package com.testing.ex.service.impl;
 
+import com.testing.ex.cache.ProductResponseCache;
+import com.testing.ex.config.ProductFeatureStorage;
+import com.testing.ex.domain.FeatureStorageMode;
+import com.testing.ex.domain.dto.projection.ProductExportRow;
+import com.testing.ex.domain.dto.projection.ProductFacetCount;
+import com.testing.ex.domain.dto.projection.ProductFacetRow;
+import com.testing.ex.domain.dto.projection.ProductFeatureRow;
+import com.testing.ex.domain.dto.projection.ProductListingVersion;
+import com.testing.ex.domain.dto.projection.ProductRow;
 import com.testing.ex.domain.dto.request.CreateProductRequest;
+import com.testing.ex.domain.dto.request.ProductListingFilter;
 import com.testing.ex.domain.dto.request.UpdateProductRequest;
+import com.testing.ex.domain.dto.response.CursorPageResponse;
+import com.testing.ex.domain.dto.response.FacetCount;
+import com.testing.ex.domain.dto.response.ProductBatchResponse;
+import com.testing.ex.domain.dto.response.ProductFacetsResponse;
 import com.testing.ex.domain.dto.response.ProductResponse;
 import com.testing.ex.domain.entity.Product;
+import com.testing.ex.domain.entity.ProductFacet;
+import com.testing.ex.exception.BadRequestException;
+import com.testing.ex.repos.ProductCounterRepository;
+import com.testing.ex.repos.ProductFacetRepository;
 import com.testing.ex.repos.ProductRepository;
+import com.testing.ex.utils.CursorCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +60,22 @@ public class ProductServiceImplTests {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCounterRepository productCounterRepository;
+
+    @Mock
+    private ProductFacetRepository productFacetRepository;
+
+    @Spy
+    private ProductResponseCache productResponseCache = new ProductResponseCache(
+            false, 1024, Duration.ofMinutes(1), false, Duration.ZERO, new SimpleMeterRegistry());
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ProductFeatureStorage featureStorage = new ProductFeatureStorage(FeatureStorageMode.DUAL);
+
     @Spy
     @InjectMocks
     private ProductServiceImpl productServiceImpl;
@@ -35,6 +84,7 @@ public class ProductServiceImplTests {
     private CreateProductRequest testCreateRequest;
     private UpdateProductRequest testUpdateRequest;
     private ProductResponse testProductResponse;
+    private ProductRow testRow;
 
     @BeforeEach
     void init() {
@@ -68,6 +118,10 @@ public class ProductServiceImplTests {
                 .features(null)
                 .build();
 
+        testRow = new ProductRow(1L, "Test Product", "SKU12345", "Test Category",
+                BigDecimal.valueOf(1L), "This is a test product", LocalDateTime.now(), LocalDateTime.now(),
+                null);
+
         testProductResponse = ProductResponse.builder()
                 .id(1L)
                 .name("Test Product")
@@ -127,6 +181,10 @@ public class ProductServiceImplTests {
 
             Mockito.verify(productRepository, Mockito.times(1))
                     .save(ArgumentMatchers.any(Product.class));
+            Mockito.verify(productCounterRepository, Mockito.times(1))
+                    .adjust(userId, 1);
+            Mockito.verify(productResponseCache, Mockito.times(1))
+                    .invalidate(userId);
 
         }
 
@@ -175,6 +233,8 @@ public class ProductServiceImplTests {
                     .findByIdAndTenantId(productId, userId);
             Mockito.verify(productRepository, Mockito.times(1))
                     .save(ArgumentMatchers.any(Product.class));
+            Mockito.verify(productResponseCache, Mockito.times(1))
+                    .invalidate(userId);
 
             assertNotNull(response);
             assertEquals(testUpdateRequest.name(), response.name());
@@ -184,6 +244,26 @@ public class ProductServiceImplTests {
 
         }
 
+        @Test
+        @DisplayName("Should bump updatedAt when only the features change")
+        void testUpdateProduct_FeaturesOnly_BumpsUpdatedAt() {
+            // Given
+            final String userId = "user-123";
+            final LocalDateTime before = LocalDateTime.of(2025, 1, 1, 12, 0);
+            testProduct.setUpdatedAt(before);
+            Mockito.when(productRepository.findByIdAndTenantId(1L, userId))
+                    .thenReturn(Optional.of(testProduct));
+            Mockito.when(productRepository.save(ArgumentMatchers.any()))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            productServiceImpl.updateProduct(userId, 1L,
+                    UpdateProductRequest.builder().features(Map.of("ram", "16GB")).build());
+
+            // Then
+            assertTrue(testProduct.getUpdatedAt().isAfter(before));
+        }
+
         @Test
         @DisplayName("Should throw exception when product to update is not found")
         void testUpdateProduct_Failure_ThrowException() {
@@ -229,6 +309,10 @@ public class ProductServiceImplTests {
                     .findByIdAndTenantId(productId, userId);
             Mockito.verify(productRepository, Mockito.times(1))
                     .delete(testProduct);
+            Mockito.verify(productCounterRepository, Mockito.times(1))
+                    .adjust(userId, -1);
+            Mockito.verify(productResponseCache, Mockito.times(1))
+                    .invalidate(userId);
             Mockito.verifyNoMoreInteractions(productRepository);
         }
 
@@ -321,6 +405,48 @@ public class ProductServiceImplTests {
         }
     }
 
+    @Nested
+    @DisplayName("Find Product Projection by ID Tests")
+    class FindProductProjectionByIdTests {
+
+        @Test
+        @DisplayName("Should return product response built from the projection")
+        void shouldReturnProductResponse() {
+            // Given
+            final String userId = "user-123";
+            final Long productId = 1L;
+
+            Mockito.when(productRepository.findRowByIdAndTenantId(productId, userId))
+                    .thenReturn(Optional.of(testRow));
+
+            // When
+            final ProductResponse result = productServiceImpl.getProductByIdAndUserId(productId, userId);
+
+            // Then
+            assertEquals(testRow.id(), result.id());
+            assertEquals(testRow.name(), result.name());
+            assertEquals(testRow.price(), result.price());
+            assertTrue(result.features().isEmpty());
+            Mockito.verify(productRepository, Mockito.never())
+                    .findByIdAndTenantId(ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when product not found")
+        void shouldThrowExceptionWhenProductNotFound() {
+            // Given
+            final String userId = "user-123";
+
+            Mockito.when(productRepository.findRowByIdAndTenantId(1L, userId))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            final IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> productServiceImpl.getProductByIdAndUserId(1L, userId));
+            assertEquals("Product not found or access denied", ex.getMessage());
+        }
+    }
+
     @Nested
     @DisplayName("Find All Products Tests")
     class FindAllProductsTests {
@@ -331,10 +457,10 @@ public class ProductServiceImplTests {
             // Given
             final String userId = "user-123";
             Pageable pageable = PageRequest.of(0, 1);
-            List<Product> products = List.of(testProduct);
-            Page<Product> productPage = new PageImpl<>(products, pageable, products.size());
+            List<ProductRow> products = List.of(testRow);
+            Page<ProductRow> productPage = new PageImpl<>(products, pageable, products.size());
 
-            Mockito.when(productRepository.findAllByTenantId(userId, pageable))
+            Mockito.when(productRepository.findRowsByTenantId(userId, pageable))
                     .thenReturn(productPage);
 
             // When
@@ -343,7 +469,7 @@ public class ProductServiceImplTests {
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
             Mockito.verify(productRepository, Mockito.times(1))
-                    .findAllByTenantId(userId, pageable);
+                    .findRowsByTenantId(userId, pageable);
         }
 
         @Test
@@ -353,7 +479,7 @@ public class ProductServiceImplTests {
             final String userId = "user-123";
             Pageable pageable = PageRequest.of(0, 1);
 
-            Mockito.when(productRepository.findAllByTenantId(userId, pageable))
+            Mockito.when(productRepository.findRowsByTenantId(userId, pageable))
                     .thenReturn(Page.empty(pageable));
 
             // When
@@ -362,7 +488,7 @@ public class ProductServiceImplTests {
             // Then
             assertEquals(0, result.getTotalElements());
             Mockito.verify(productRepository, Mockito.times(1))
-                    .findAllByTenantId(userId, pageable);
+                    .findRowsByTenantId(userId, pageable);
 
         }
 
@@ -372,7 +498,7 @@ public class ProductServiceImplTests {
             // Given
             final String userId = "user-123";
             Pageable pageable = PageRequest.of(0, 1);
-            Mockito.when(productRepository.findAllByTenantId(userId, pageable))
+            Mockito.when(productRepository.findRowsByTenantId(userId, pageable))
                     .thenThrow(new RuntimeException("Database error"));
 
             // When & Then
@@ -382,7 +508,651 @@ public class ProductServiceImplTests {
 
             assertEquals("Database error", ex.getMessage());
             Mockito.verify(productRepository, Mockito.times(1))
-                    .findAllByTenantId(userId, pageable);
+                    .findRowsByTenantId(userId, pageable);
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Pagination Tests")
+    class KeysetPaginationTests {
+
+        private ProductRow productAt(long id, LocalDateTime createdAt) {
+            return new ProductRow(id, "Product " + id, "SKU" + id, "Test Category",
+                    BigDecimal.ONE, null, createdAt, createdAt, null);
+        }
+
+        @Test
+        @DisplayName("Should return first page with a cursor pointing at its last row")
+        void shouldReturnFirstPageWithNextCursor() {
+            // Given
+            final String userId = "user-123";
+            final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+            List<ProductRow> rows = List.of(productAt(3L, now), productAt(2L, now), productAt(1L, now.minusDays(1)));
+
+            Mockito.when(productRepository.findKeysetFirstPage(userId, Limit.of(3)))
+                    .thenReturn(rows);
+
+            // When
+            CursorPageResponse<ProductResponse> result = productServiceImpl.getAllByUserIdAfter(userId, null, 2);
+
+            // Then
+            assertEquals(2, result.content().size());
+            assertTrue(result.hasNext());
+            assertEquals(new CursorCodec.Cursor(now, 2L), CursorCodec.decode(result.nextCursor()));
+        }
+
+        @Test
+        @DisplayName("Should seek after the cursor position and report the last page")
+        void shouldSeekAfterCursor() {
+            // Given
+            final String userId = "user-123";
+            final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+            final String cursor = CursorCodec.encode(createdAt, 2L);
+
+            Mockito.when(productRepository.findKeysetPageAfter(userId, createdAt, 2L, Limit.of(3)))
+                    .thenReturn(List.of(productAt(1L, createdAt.minusDays(1))));
+
+            // When
+            CursorPageResponse<ProductResponse> result = productServiceImpl.getAllByUserIdAfter(userId, cursor, 2);
+
+            // Then
+            assertEquals(1, result.content().size());
+            assertFalse(result.hasNext());
+            assertNull(result.nextCursor());
+            Mockito.verify(productRepository, Mockito.never())
+                    .findKeysetFirstPage(ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should reject a tampered cursor")
+        void shouldRejectInvalidCursor() {
+            // When & Then
+            assertThrows(BadRequestException.class,
+                    () -> productServiceImpl.getAllByUserIdAfter("user-123", "not-a-cursor", 20));
+            Mockito.verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Count-Free Listing Tests")
+    class CountFreeListingTests {
+
+        @Test
+        @DisplayName("Should return a slice without counting the tenant's products")
+        void shouldReturnSlice() {
+            // Given
+            final String userId = "user-123";
+            Pageable pageable = PageRequest.of(0, 1);
+
+            Mockito.when(productRepository.findRowSliceByTenantId(userId, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(testRow), pageable, true));
+
+            // When
+            Slice<ProductResponse> result = productServiceImpl.getSliceByUserId(userId, pageable);
+
+            // Then
+            assertEquals(1, result.getNumberOfElements());
+            assertTrue(result.hasNext());
+            Mockito.verify(productRepository, Mockito.never())
+                    .findRowsByTenantId(ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should read the total from the tenant counter")
+        void shouldReadCountFromCounter() {
+            // Given
+            Mockito.when(productCounterRepository.findCountByTenantId("user-123"))
+                    .thenReturn(Optional.of(42L));
+
+            // When & Then
+            assertEquals(42L, productServiceImpl.countByUserId("user-123"));
+            Mockito.verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should report zero for a tenant without counter row")
+        void shouldReportZeroWithoutCounter() {
+            // Given
+            Mockito.when(productCounterRepository.findCountByTenantId("user-123"))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertEquals(0L, productServiceImpl.countByUserId("user-123"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Version Metadata Tests")
+    class VersionMetadataTests {
+
+        @Test
+        @DisplayName("Should build the listing version from the tenant counter")
+        void shouldReturnListingVersion() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productCounterRepository.findListingVersionByTenantId(userId))
+                    .thenReturn(Optional.of(new ProductListingVersion(7L, 42L)));
+
+            // When
+            ProductListingVersion version = productServiceImpl.getListingVersion(userId);
+
+            // Then
+            assertEquals(new ProductListingVersion(7L, 42L), version);
+            Mockito.verify(productRepository, Mockito.never())
+                    .findRowsByTenantId(ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should return the product's version without loading it")
+        void shouldReturnProductVersion() {
+            // Given
+            Mockito.when(productRepository.findVersionByIdAndTenantId(1L, "user-123"))
+                    .thenReturn(Optional.of(3L));
+
+            // When & Then
+            assertEquals(3L, productServiceImpl.getProductVersion(1L, "user-123"));
+            Mockito.verify(productRepository, Mockito.never())
+                    .findRowByIdAndTenantId(ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when versioned product not found")
+        void shouldThrowWhenProductVersionMissing() {
+            // Given
+            Mockito.when(productRepository.findVersionByIdAndTenantId(1L, "user-123"))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> productServiceImpl.getProductVersion(1L, "user-123"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Tests")
+    class ExportTests {
+
+        private ProductExportRow row(long id, String key, String value) {
+            return new ProductExportRow(id, "Phone " + id, "SKU-" + id, "phones",
+                    BigDecimal.TEN, "desc", null, key, value);
+        }
+
+        @Test
+        @DisplayName("Should fold adjacent feature rows into one product each")
+        void shouldGroupRowsByProduct() {
+            // Given
+            final String userId = "user-123";
+            AtomicBoolean closed = new AtomicBoolean();
+            Stream<ProductExportRow> rows = Stream.of(
+                    row(1L, "ram", "8GB"),
+                    row(1L, "color", "black"),
+                    row(2L, null, null),
+                    row(3L, "ram", "4GB")
+            ).onClose(() -> closed.set(true));
+            Mockito.when(productRepository.streamExportRowsByTenantId(userId)).thenReturn(rows);
+            List<ProductResponse> exported = new ArrayList<>();
+
+            // When
+            long count = productServiceImpl.exportByUserId(userId, exported::add);
+
+            // Then
+            assertEquals(3L, count);
+            assertEquals(List.of(1L, 2L, 3L), exported.stream().map(ProductResponse::id).toList());
+            assertEquals(Map.of("ram", "8GB", "color", "black"), exported.get(0).features());
+            assertEquals(Map.of(), exported.get(1).features());
+            assertEquals(Map.of("ram", "4GB"), exported.get(2).features());
+            assertTrue(closed.get());
+            Mockito.verify(productResponseCache, Mockito.never())
+                    .get(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should export nothing for an empty catalog")
+        void shouldHandleEmptyCatalog() {
+            // Given
+            Mockito.when(productRepository.streamExportRowsByTenantId("user-123"))
+                    .thenReturn(Stream.empty());
+
+            // When & Then
+            assertEquals(0L, productServiceImpl.exportByUserId("user-123", p -> fail()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Create Tests")
+    class BulkCreateTests {
+
+        private CreateProductRequest request(String sku) {
+            return new CreateProductRequest("Phone", sku, "phones", BigDecimal.TEN, null,
+                    Map.of("ram", "8GB"));
+        }
+
+        @Test
+        @DisplayName("Should create valid items and report rejected ones individually")
+        void shouldReportPerItemResults() {
+            // Given
+            final String userId = "user-123";
+            List<CreateProductRequest> requests = List.of(
+                    request("A"),
+                    new CreateProductRequest("", "B", "phones", BigDecimal.TEN, null, null),
+                    request("A"),
+                    request("EXISTING"),
+                    request("C"));
+            Mockito.when(productRepository.findExistingSkus(ArgumentMatchers.eq(userId),
+                    ArgumentMatchers.anyCollection())).thenReturn(List.of("EXISTING"));
+            Mockito.doAnswer(invocation -> {
+                List<Product> products = invocation.getArgument(0);
+                for (int i = 0; i < products.size(); i++) {
+                    products.get(i).setId(100L + i);
+                }
+                return null;
+            }).when(productRepository).persistInBatches(ArgumentMatchers.anyList());
+
+            // When
+            ProductBatchResponse result = productServiceImpl.createProducts(userId, requests);
+
+            // Then
+            assertEquals(2, result.created());
+            assertEquals(3, result.rejected());
+            assertEquals(100L, result.results().get(0).id());
+            assertEquals("name: must not be blank", result.results().get(1).error());
+            assertEquals("Duplicate SKU in batch", result.results().get(2).error());
+            assertEquals("SKU already exists", result.results().get(3).error());
+            assertEquals(101L, result.results().get(4).id());
+            assertNull(result.results().get(4).error());
+            Mockito.verify(productCounterRepository).adjust(userId, 2);
+            Mockito.verify(productResponseCache).invalidate(userId);
+        }
+
+        @Test
+        @DisplayName("Should not write anything when every item is rejected")
+        void shouldSkipInsertWhenAllRejected() {
+            // Given
+            Mockito.when(productRepository.findExistingSkus(ArgumentMatchers.eq("user-123"),
+                    ArgumentMatchers.anyCollection())).thenReturn(List.of("A"));
+
+            // When
+            ProductBatchResponse result =
+                    productServiceImpl.createProducts("user-123", List.of(request("A")));
+
+            // Then
+            assertEquals(0, result.created());
+            Mockito.verify(productRepository, Mockito.never())
+                    .persistInBatches(ArgumentMatchers.anyList());
+            Mockito.verify(productCounterRepository, Mockito.never())
+                    .adjust(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject empty and oversized batches")
+        void shouldRejectBatchSize() {
+            List<CreateProductRequest> tooMany = Collections.nCopies(
+                    ProductServiceImpl.MAX_BATCH_ITEMS + 1, request("A"));
+
+            assertThrows(BadRequestException.class,
+                    () -> productServiceImpl.createProducts("user-123", List.of()));
+            assertThrows(BadRequestException.class,
+                    () -> productServiceImpl.createProducts("user-123", tooMany));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Update And Delete Tests")
+    class BulkUpdateDeleteTests {
+
+        @Test
+        @DisplayName("Should reprice a category chunk by chunk until a short chunk")
+        void shouldRepriceInChunks() {
+            // Given
+            final String userId = "user-123";
+            List<Long> fullChunk = new ArrayList<>();
+            for (long id = 1; id <= ProductServiceImpl.IN_LIST_CHUNK; id++) {
+                fullChunk.add(id);
+            }
+            List<Long> lastChunk = List.of(5000L, 5001L);
+            Mockito.when(productRepository.findIdsByTenantIdAndCategoryAfter(
+                    ArgumentMatchers.eq(userId), ArgumentMatchers.eq("phones"),
+                    ArgumentMatchers.anyLong(), ArgumentMatchers.any(Limit.class)))
+                    .thenReturn(fullChunk, lastChunk);
+            Mockito.when(productRepository.scalePriceByTenantIdAndIdIn(ArgumentMatchers.eq(userId),
+                    ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                    .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+
+            // When
+            long affected = productServiceImpl.changePriceByCategory(userId, "phones",
+                    new BigDecimal("-15"));
+
+            // Then
+            assertEquals(ProductServiceImpl.IN_LIST_CHUNK + 2L, affected);
+            Mockito.verify(productRepository).findIdsByTenantIdAndCategoryAfter(
+                    ArgumentMatchers.eq(userId), ArgumentMatchers.eq("phones"),
+                    ArgumentMatchers.eq((long) ProductServiceImpl.IN_LIST_CHUNK),
+                    ArgumentMatchers.any(Limit.class));
+            Mockito.verify(productRepository, Mockito.times(2)).scalePriceByTenantIdAndIdIn(
+                    ArgumentMatchers.eq(userId), ArgumentMatchers.anyCollection(),
+                    ArgumentMatchers.eq(new BigDecimal("0.85")), ArgumentMatchers.any());
+            Mockito.verify(productResponseCache).invalidate(userId);
+        }
+
+        @Test
+        @DisplayName("Should delete features before products and adjust the counter")
+        void shouldDeleteBySkus() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productRepository.findIdsByTenantIdAndSkuIn(userId, List.of("A", "B")))
+                    .thenReturn(List.of(1L, 2L));
+            Mockito.when(productRepository.deleteByTenantIdAndIdIn(userId, List.of(1L, 2L)))
+                    .thenReturn(2);
+
+            // When
+            long affected = productServiceImpl.deleteBySkus(userId, List.of("A", "B", "A"));
+
+            // Then
+            assertEquals(2L, affected);
+            InOrder inOrder = Mockito.inOrder(productRepository);
+            inOrder.verify(productRepository).deleteFeaturesByProductIdIn(List.of(1L, 2L));
+            inOrder.verify(productRepository).deleteByTenantIdAndIdIn(userId, List.of(1L, 2L));
+            Mockito.verify(productCounterRepository).adjust(userId, -2L);
+            Mockito.verify(productResponseCache).invalidate(userId);
+        }
+
+        @Test
+        @DisplayName("Should leave counter and cache alone when nothing matches")
+        void shouldIgnoreUnknownSkus() {
+            // Given
+            Mockito.when(productRepository.findIdsByTenantIdAndSkuIn("user-123", List.of("X")))
+                    .thenReturn(List.of());
+
+            // When & Then
+            assertEquals(0L, productServiceImpl.deleteBySkus("user-123", List.of("X")));
+            Mockito.verify(productCounterRepository, Mockito.never())
+                    .adjust(ArgumentMatchers.any(), ArgumentMatchers.anyLong());
+            Mockito.verify(productResponseCache, Mockito.never()).invalidate(ArgumentMatchers.any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should split the query into distinct lower-case words and keep relevance order")
+        void shouldSearchByTerms() {
+            // Given
+            final String userId = "user-123";
+            ProductRow first = new ProductRow(2L, "Phone X", "SKU-2", "phones", BigDecimal.TEN,
+                    null, LocalDateTime.now(), LocalDateTime.now(), null);
+            ProductRow second = new ProductRow(1L, "Phone", "SKU-1", "phones", BigDecimal.TEN,
+                    "x", LocalDateTime.now(), LocalDateTime.now(), null);
+            Mockito.when(productRepository.searchIds(userId, List.of("phone", "x"), 20))
+                    .thenReturn(List.of(2L, 1L));
+            Mockito.when(productRepository.findRowsByTenantIdAndIdIn(userId, List.of(2L, 1L)))
+                    .thenReturn(List.of(second, first));
+
+            // When
+            List<ProductResponse> result =
+                    productServiceImpl.searchByUserId(userId, "  Phone, +X* phone ", 20);
+
+            // Then
+            assertEquals(List.of(2L, 1L), result.stream().map(ProductResponse::id).toList());
+        }
+
+        @Test
+        @DisplayName("Should reject queries without words and out-of-range limits")
+        void shouldRejectInvalidSearch() {
+            assertThrows(BadRequestException.class,
+                    () -> productServiceImpl.searchByUserId("user-123", " +-* ", 20));
+            assertThrows(BadRequestException.class,
+                    () -> productServiceImpl.searchByUserId("user-123", "phone", 0));
+            assertThrows(BadRequestException.class, () -> productServiceImpl.searchByUserId(
+                    "user-123", "phone", ProductServiceImpl.MAX_SEARCH_RESULTS + 1));
+            Mockito.verify(productRepository, Mockito.never()).searchIds(
+                    ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Feature Filter Tests")
+    class FeatureFilterTests {
+
+        @Test
+        @DisplayName("Should hydrate filtered ids in repository order")
+        void shouldReturnFilteredPageInOrder() {
+            // Given
+            final String userId = "user-123";
+            Pageable pageable = PageRequest.of(0, 2);
+            ProductRow first = new ProductRow(7L, "Phone 7", "SKU-7", "phones", BigDecimal.TEN,
+                    null, LocalDateTime.now(), LocalDateTime.now(), null);
+            ProductRow second = new ProductRow(3L, "Phone 3", "SKU-3", "phones", BigDecimal.TEN,
+                    null, LocalDateTime.now(), LocalDateTime.now(), null);
+            Mockito.when(productRepository.findIdsByTenantIdAndFeatures(userId,
+                            Map.of("ram", "8GB"), pageable))
+                    .thenReturn(new PageImpl<>(List.of(7L, 3L), pageable, 5));
+            Mockito.when(productRepository.findRowsByTenantIdAndIdIn(userId, List.of(7L, 3L)))
+                    .thenReturn(List.of(second, first));
+
+            // When
+            Page<ProductResponse> result = productServiceImpl.getAllByUserIdAndFeatures(userId,
+                    Map.of("ram", "8GB"), pageable);
+
+            // Then
+            assertEquals(5, result.getTotalElements());
+            assertEquals(List.of(7L, 3L), result.getContent().stream().map(ProductResponse::id).toList());
+        }
+
+        @Test
+        @DisplayName("Should use the plain listing when no feature filter is given")
+        void shouldDelegateWithoutFilters() {
+            // Given
+            Pageable pageable = PageRequest.of(0, 20);
+            Mockito.when(productRepository.findRowsByTenantId("user-123", pageable))
+                    .thenReturn(Page.empty(pageable));
+
+            // When
+            productServiceImpl.getAllByUserIdAndFeatures("user-123", Map.of(), pageable);
+
+            // Then
+            Mockito.verify(productRepository, Mockito.never()).findIdsByTenantIdAndFeatures(
+                    ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Feature Storage Tests")
+    class FeatureStorageTests {
+
+        @Test
+        @DisplayName("Should prefer JSON features and query the table only for the rest")
+        void shouldFallBackToTableForRowsWithoutJson() {
+            // Given
+            final String userId = "user-123";
+            Pageable pageable = PageRequest.of(0, 20);
+            ProductRow migrated = new ProductRow(1L, "A", "SKU-A", "phones", BigDecimal.TEN, null,
+                    LocalDateTime.now(), LocalDateTime.now(), Map.of("ram", "8GB"));
+            ProductRow legacy = new ProductRow(2L, "B", "SKU-B", "phones", BigDecimal.TEN, null,
+                    LocalDateTime.now(), LocalDateTime.now(), null);
+            Mockito.when(productRepository.findRowsByTenantId(userId, pageable))
+                    .thenReturn(new PageImpl<>(List.of(migrated, legacy), pageable, 2));
+            Mockito.when(productRepository.findFeatureRowsByProductIdIn(List.of(2L)))
+                    .thenReturn(List.of(new ProductFeatureRow(2L, "ram", "4GB")));
+
+            // When
+            Page<ProductResponse> result = productServiceImpl.getAllByUserId(userId, pageable);
+
+            // Then
+            assertEquals(Map.of("ram", "8GB"), result.getContent().get(0).features());
+            assertEquals(Map.of("ram", "4GB"), result.getContent().get(1).features());
+        }
+
+        @Test
+        @DisplayName("Should update only the JSON column in JSON mode")
+        void shouldWriteJsonOnlyInJsonMode() {
+            // Given
+            final String userId = "user-123";
+            Mockito.doReturn(false).when(featureStorage).usesTable();
+            Mockito.when(productRepository.findByIdAndTenantId(1L, userId))
+                    .thenReturn(Optional.of(testProduct));
+            Mockito.when(productRepository.save(ArgumentMatchers.any()))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            ProductResponse response = productServiceImpl.updateProduct(userId, 1L,
+                    UpdateProductRequest.builder().features(Map.of("ram", "16GB")).build());
+
+            // Then
+            assertNull(testProduct.getFeatures());
+            assertEquals(Map.of("ram", "16GB"), testProduct.getFeaturesJson());
+            assertEquals(Map.of("ram", "16GB"), response.features());
+        }
+    }
+
+    @Nested
+    @DisplayName("Facet Tests")
+    class FacetTests {
+
+        @Test
+        @DisplayName("Should count a created product in its category and price band")
+        void shouldCountCreatedProduct() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productRepository.save(ArgumentMatchers.any(Product.class)))
+                    .thenReturn(testProduct);
+
+            // When
+            productServiceImpl.createProduct(userId, testCreateRequest);
+
+            // Then
+            Mockito.verify(productFacetRepository)
+                    .adjust(userId, ProductFacet.CATEGORY, "Test Category", 1L);
+            Mockito.verify(productFacetRepository).adjust(userId, ProductFacet.PRICE, "0-50", 1L);
+        }
+
+        @Test
+        @DisplayName("Should move an updated product between categories but not within a band")
+        void shouldMoveUpdatedProduct() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productRepository.findByIdAndTenantId(1L, userId))
+                    .thenReturn(Optional.of(testProduct));
+            Mockito.when(productRepository.save(ArgumentMatchers.any()))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            productServiceImpl.updateProduct(userId, 1L, testUpdateRequest);
+
+            // Then
+            InOrder inOrder = Mockito.inOrder(productFacetRepository);
+            inOrder.verify(productFacetRepository)
+                    .adjust(userId, ProductFacet.CATEGORY, "Test Category", -1L);
+            inOrder.verify(productFacetRepository)
+                    .adjust(userId, ProductFacet.CATEGORY, "Updated Category", 1L);
+            Mockito.verifyNoMoreInteractions(productFacetRepository);
+        }
+
+        @Test
+        @DisplayName("Should move repriced products to their new price band")
+        void shouldMoveRepricedProducts() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productRepository.findIdsByTenantIdAndCategoryAfter(
+                    ArgumentMatchers.eq(userId), ArgumentMatchers.eq("phones"),
+                    ArgumentMatchers.anyLong(), ArgumentMatchers.any(Limit.class)))
+                    .thenReturn(List.of(1L, 2L));
+            Mockito.when(productRepository.findFacetRowsByTenantIdAndIdIn(userId, List.of(1L, 2L)))
+                    .thenReturn(List.of(new ProductFacetRow("phones", new BigDecimal("95")),
+                            new ProductFacetRow("phones", new BigDecimal("300"))));
+            Mockito.when(productRepository.scalePriceByTenantIdAndIdIn(ArgumentMatchers.eq(userId),
+                    ArgumentMatchers.anyCollection(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                    .thenReturn(2);
+
+            // When
+            productServiceImpl.changePriceByCategory(userId, "phones", BigDecimal.TEN);
+
+            // Then
+            Mockito.verify(productFacetRepository).adjust(userId, ProductFacet.PRICE, "50-100", -1L);
+            Mockito.verify(productFacetRepository).adjust(userId, ProductFacet.PRICE, "100-250", 1L);
+            Mockito.verifyNoMoreInteractions(productFacetRepository);
+        }
+
+        @Test
+        @DisplayName("Should order categories by count and price bands by price")
+        void shouldShapeFacets() {
+            // Given
+            final String userId = "user-123";
+            Mockito.when(productFacetRepository.findCountsByTenantId(userId)).thenReturn(List.of(
+                    new ProductFacetCount(ProductFacet.PRICE, "1000+", 1),
+                    new ProductFacetCount(ProductFacet.CATEGORY, "laptops", 1),
+                    new ProductFacetCount(ProductFacet.PRICE, "0-50", 4),
+                    new ProductFacetCount(ProductFacet.CATEGORY, "phones", 4)));
+
+            // When
+            ProductFacetsResponse result = productServiceImpl.getFacetsByUserId(userId);
+
+            // Then
+            assertEquals(List.of(new FacetCount("phones", 4), new FacetCount("laptops", 1)),
+                    result.categories());
+            assertEquals(List.of(new FacetCount("0-50", 4), new FacetCount("1000+", 1)),
+                    result.priceBands());
+        }
+
+        @Test
+        @DisplayName("Should replace the counts of the tenant when rebuilding")
+        void shouldRebuildFacets() {
+            // When
+            productServiceImpl.rebuildFacets("user-123");
+
+            // Then
+            InOrder inOrder = Mockito.inOrder(productFacetRepository);
+            inOrder.verify(productFacetRepository).deleteByTenantId("user-123");
+            inOrder.verify(productFacetRepository).insertCategoryCounts("user-123");
+            inOrder.verify(productFacetRepository).insertPriceBandCounts("user-123");
+            Mockito.verify(productResponseCache).invalidate("user-123");
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtered Listing Tests")
+    class FilteredListingTests {
+
+        @Test
+        @DisplayName("Should hydrate the filtered ids in repository order")
+        void shouldHydrateFilteredIds() {
+            // Given
+            final String userId = "user-123";
+            ProductListingFilter filter = new ProductListingFilter("phones", BigDecimal.ONE,
+                    BigDecimal.TEN, null, null);
+            Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "price"));
+            ProductRow other = new ProductRow(2L, "Other", "SKU-2", "phones", BigDecimal.TEN, null,
+                    LocalDateTime.now(), LocalDateTime.now(), Map.of());
+            Mockito.when(productRepository.findIdsByTenantIdAndFilter(userId, filter, pageable))
+                    .thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 2));
+            Mockito.when(productRepository.findRowsByTenantIdAndIdIn(userId, List.of(2L, 1L)))
+                    .thenReturn(List.of(testRow, other));
+
+            // When
+            Page<ProductResponse> result = productServiceImpl.getAllByUserIdAndFilter(userId, filter,
+                    pageable);
+
+            // Then
+            assertEquals(List.of(2L, 1L), result.getContent().stream().map(ProductResponse::id).toList());
+            assertEquals(2, result.getTotalElements());
+        }
+
+        @Test
+        @DisplayName("Should reject inverted ranges and sorts without a matching index")
+        void shouldRejectInvalidQueries() {
+            ProductListingFilter byCategory = new ProductListingFilter("phones", null, null, null, null);
+
+            assertThrows(BadRequestException.class, () -> productServiceImpl.getAllByUserIdAndFilter(
+                    "user-123", new ProductListingFilter(null, BigDecimal.TEN, BigDecimal.ONE, null, null),
+                    PageRequest.of(0, 20)));
+            assertThrows(BadRequestException.class, () -> productServiceImpl.getAllByUserIdAndFilter(
+                    "user-123", byCategory, PageRequest.of(0, 20, Sort.by("name"))));
+            assertThrows(BadRequestException.class, () -> productServiceImpl.getAllByUserIdAndFilter(
+                    "user-123", byCategory, PageRequest.of(0, 20, Sort.by("price", "createdAt"))));
+            assertThrows(BadRequestException.class, () -> productServiceImpl.getAllByUserIdAndFilter(
+                    "user-123", byCategory, PageRequest.of(0, 20, Sort.by("description"))));
+            Mockito.verifyNoInteractions(productRepository);
         }
     }
 }
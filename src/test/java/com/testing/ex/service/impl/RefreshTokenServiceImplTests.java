@@ -0,0 +1,184 @@
+package com.testing.ex.service.impl;
+
+import com.testing.ex.domain.dto.response.LoginResponse;
+import com.testing.ex.domain.entity.RefreshToken;
+import com.testing.ex.domain.entity.User;
+import com.testing.ex.repos.RefreshTokenRepository;
+import com.testing.ex.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenServiceImpl Tests")
+public class RefreshTokenServiceImplTests {
+
+    private static final String SECRET = "6Rk8dVjG0tM1FZT7nLqXztdVd7y9hTqY3FjXZ3qH1Nc=";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void init() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, jwtService,
+                "", SECRET, Duration.ofDays(30));
+        user = User.builder()
+                .id(1L)
+                .email("testing@testmail.com")
+                .username("testuser")
+                .password("$2a$12$hash")
+                .enabled(true)
+                .build();
+    }
+
+    private RefreshToken storedToken(String token) {
+        return RefreshToken.builder()
+                .id(7L)
+                .user(user)
+                .tokenHash(refreshTokenService.hash(token))
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should store only the keyed hash of an issued token")
+    void shouldStoreHashOnly() {
+        // When
+        String token = refreshTokenService.issue(user);
+
+        // Then
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        Mockito.verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(43, token.length());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(refreshTokenService.hash(token), saved.getValue().getTokenHash());
+        assertSame(user, saved.getValue().getUser());
+    }
+
+    @Test
+    @DisplayName("Should rotate the token and issue a new access token")
+    void shouldRotate() {
+        // Given
+        String token = refreshTokenService.issue(user);
+        Mockito.when(refreshTokenRepository.findWithUserByTokenHash(refreshTokenService.hash(token)))
+                .thenReturn(Optional.of(storedToken(token)));
+        Mockito.when(refreshTokenRepository.revoke(ArgumentMatchers.eq(7L), ArgumentMatchers.any()))
+                .thenReturn(1);
+        Mockito.when(jwtService.generateToken(ArgumentMatchers.any())).thenReturn("jwt");
+        Mockito.when(jwtService.getExpirationTime()).thenReturn(3600000L);
+
+        // When
+        LoginResponse response = refreshTokenService.refresh(token);
+
+        // Then
+        assertEquals("jwt", response.getToken());
+        assertNotNull(response.getRefreshToken());
+        assertNotEquals(token, response.getRefreshToken());
+        Mockito.verify(refreshTokenRepository, Mockito.never())
+                .revokeAllByUserId(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Should revoke every token of the user when a used token is replayed")
+    void shouldRevokeAllOnReuse() {
+        // Given
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = storedToken(token);
+        stored.setRevokedAt(LocalDateTime.now().minusMinutes(5));
+        Mockito.when(refreshTokenRepository.findWithUserByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(stored));
+
+        // When
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh(token));
+
+        // Then
+        Mockito.verify(refreshTokenRepository).revokeAllByUserId(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and malformed tokens without issuing")
+    void shouldRejectUnknownToken() {
+        // Given
+        String unknown = "A".repeat(43);
+        Mockito.when(refreshTokenRepository.findWithUserByTokenHash(ArgumentMatchers.any()))
+                .thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh(unknown));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("short"));
+        Mockito.verify(refreshTokenRepository, Mockito.times(1))
+                .findWithUserByTokenHash(ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void shouldRejectExpiredToken() {
+        // Given
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = storedToken(token);
+        stored.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        Mockito.when(refreshTokenRepository.findWithUserByTokenHash(stored.getTokenHash()))
+                .thenReturn(Optional.of(stored));
+        Mockito.when(refreshTokenRepository.revoke(ArgumentMatchers.eq(7L), ArgumentMatchers.any()))
+                .thenReturn(1);
+
+        // When
+        BadCredentialsException ex = assertThrows(BadCredentialsException.class,
+                () -> refreshTokenService.refresh(token));
+
+        // Then
+        assertEquals("Refresh token expired", ex.getMessage());
+        Mockito.verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    @DisplayName("Should derive the hash key with HKDF-SHA256 per RFC 5869")
+    void shouldDeriveKeyWithHkdf() {
+        // Given - RFC 5869 test case 3: 22 bytes of 0x0b, empty salt and info
+        byte[] inputKey = new byte[22];
+        Arrays.fill(inputKey, (byte) 0x0b);
+
+        // When
+        byte[] key = RefreshTokenServiceImpl.hkdf(inputKey, "");
+
+        // Then - first 32 bytes of the reference output
+        assertEquals("8da4e775a563c18f715f802a063c5a31b8a11f5c5ee1879ec3454e5f3c738d2d",
+                HexFormat.of().formatHex(key));
+    }
+
+    @Test
+    @DisplayName("Should not hash tokens under the JWT secret itself")
+    void shouldSeparateKeyFromJwtSecret() {
+        // Given
+        RefreshTokenServiceImpl underJwtSecret = new RefreshTokenServiceImpl(
+                refreshTokenRepository, jwtService, SECRET, SECRET, Duration.ofDays(30));
+        String token = "a".repeat(43);
+
+        // When & Then
+        assertNotEquals(underJwtSecret.hash(token), refreshTokenService.hash(token));
+    }
+}
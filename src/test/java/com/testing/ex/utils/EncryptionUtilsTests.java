@@ -0,0 +1,146 @@
+package com.testing.ex.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.ex.domain.dto.response.ProductResponse;
+import com.testing.ex.exception.BadRequestException;
+import com.testing.ex.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EncryptionUtils Tests")
+public class EncryptionUtilsTests {
+
+    private final EncryptionUtils encryptionUtils =
+            new EncryptionUtils("s8Hd#29pQmF@l3Kv", new ObjectMapper());
+
+    private final ProductResponse product = new ProductResponse(1L, "Phone", "SKU-1", "phones",
+            BigDecimal.TEN, "desc", Map.of("ram", "8GB"));
+
+    @Test
+    @DisplayName("Should decrypt what it encrypted, with a fresh nonce per message")
+    void shouldRoundTrip() {
+        String first = encryptionUtils.encryptJson(product);
+        String second = encryptionUtils.encryptJson(product);
+
+        assertNotEquals(first, second);
+        assertEquals(product, encryptionUtils.decryptJson(first, ProductResponse.class));
+        assertEquals(product, encryptionUtils.decryptJson(second, ProductResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, truncated and malformed messages")
+    void shouldRejectTamperedMessages() {
+        byte[] sealed = Base64.getDecoder().decode(encryptionUtils.encryptJson(product));
+        sealed[sealed.length / 2] ^= 1;
+
+        assertThrows(BadRequestException.class, () -> encryptionUtils.decryptJson(
+                Base64.getEncoder().encodeToString(sealed), ProductResponse.class));
+        assertThrows(BadRequestException.class,
+                () -> encryptionUtils.decryptJson("AAAA", ProductResponse.class));
+        assertThrows(BadRequestException.class,
+                () -> encryptionUtils.decryptJson("not base64!", ProductResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should decrypt the raw bytes carried as a CBOR or Smile byte string")
+    void shouldDecryptBinaryCarriedMessages() throws IOException {
+        BinaryCodecs codecs = new BinaryCodecs(Jackson2ObjectMapperBuilder.json());
+        byte[] sealed = Base64.getDecoder().decode(encryptionUtils.encryptJson(product));
+
+        for (MediaType type : new MediaType[] {MediaType.APPLICATION_CBOR,
+                BinaryCodecs.APPLICATION_SMILE}) {
+            ObjectMapper mapper = codecs.mapperFor(type).orElseThrow();
+            byte[] body = mapper.writeValueAsBytes(sealed);
+
+            assertEquals(product, encryptionUtils.decryptJson(
+                    mapper.readValue(body, byte[].class), ProductResponse.class));
+            assertEquals(type, BinaryCodecs.requestedBinaryType(type + ", application/json")
+                    .orElseThrow());
+        }
+        assertTrue(BinaryCodecs.requestedBinaryType("*/*").isEmpty());
+        assertTrue(BinaryCodecs.requestedBinaryType("application/json, application/cbor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse keys that are not a valid AES key length")
+    void shouldRejectInvalidKeyLength() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EncryptionUtils("short", new ObjectMapper()));
+    }
+
+    private byte[] encryptStream(byte[] plain) throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream out = encryptionUtils.encryptingStream(target)) {
+            // Write in odd-sized chunks so segment boundaries fall mid-write.
+            for (int off = 0; off < plain.length; off += 1000) {
+                out.write(plain, off, Math.min(1000, plain.length - off));
+            }
+        }
+        return target.toByteArray();
+    }
+
+    private byte[] decryptStream(byte[] encoded) throws IOException {
+        try (InputStream in = encryptionUtils.decryptingStream(new ByteArrayInputStream(encoded))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream-decrypt what it stream-encrypted across segment boundaries")
+    void shouldRoundTripStreams() throws IOException {
+        Random random = new Random(42);
+        for (int size : new int[] {0, 1, EncryptionUtils.SEGMENT_SIZE,
+                EncryptionUtils.SEGMENT_SIZE * 2, EncryptionUtils.SEGMENT_SIZE * 3 + 17}) {
+            byte[] plain = new byte[size];
+            random.nextBytes(plain);
+
+            assertArrayEquals(plain, decryptStream(encryptStream(plain)), "size " + size);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail stream decryption when a segment is altered or the stream is cut")
+    void shouldRejectTamperedStreams() throws IOException {
+        byte[] plain = new byte[EncryptionUtils.SEGMENT_SIZE * 2];
+        byte[] sealed = Base64.getDecoder().decode(encryptStream(plain));
+
+        byte[] tampered = sealed.clone();
+        tampered[tampered.length - 5] ^= 1;
+        // Dropping the final (empty) segment leaves a stream ending on a full segment.
+        byte[] truncated = Arrays.copyOf(sealed, sealed.length - 16);
+        // Cutting inside a full segment makes it look like the final one.
+        byte[] cut = Arrays.copyOf(sealed, sealed.length - 1000);
+
+        for (byte[] bad : new byte[][] {tampered, truncated, cut}) {
+            assertThrows(IOException.class,
+                    () -> decryptStream(Base64.getEncoder().encode(bad)));
+        }
+        assertThrows(IOException.class, () -> decryptStream("AAAA".getBytes()));
+    }
+
+    @Test
+    @DisplayName("Should stop reading once the size limit is exceeded")
+    void shouldLimitInput() throws IOException {
+        byte[] body = new byte[100];
+
+        assertEquals(100, new LimitedInputStream(new ByteArrayInputStream(body), 100)
+                .readAllBytes().length);
+        assertThrows(PayloadTooLargeException.class,
+                () -> new LimitedInputStream(new ByteArrayInputStream(body), 99).readAllBytes());
+    }
+}
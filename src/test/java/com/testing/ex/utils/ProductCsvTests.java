@@ -0,0 +1,68 @@
+package com.testing.ex.utils;
+
+import com.testing.ex.domain.dto.response.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductCsv Tests")
+public class ProductCsvTests {
+
+    private static ProductResponse product(Map<String, String> features) {
+        return ProductResponse.builder()
+                .id(1L)
+                .name("Phone")
+                .sku("PX-001")
+                .category("phones")
+                .price(new BigDecimal("499.00"))
+                .description("Flagship")
+                .features(features)
+                .build();
+    }
+
+    private static String featuresColumn(String line) {
+        String row = line.substring(0, line.length() - 2);
+        return row.substring(row.lastIndexOf(',') + 1);
+    }
+
+    @Test
+    @DisplayName("Should round-trip feature values containing ';', '=' and '\\'")
+    void shouldRoundTripEscapedFeatures() {
+        // Given
+        Map<String, String> features = Map.of(
+                "battery", "5000mAh; fast charge",
+                "ram", "8GB",
+                "note", "ratio=16:9 \\ matte");
+
+        // When
+        String line = ProductCsv.line(product(features));
+
+        // Then
+        assertEquals("battery=5000mAh\\; fast charge;note=ratio\\=16:9 \\\\ matte;ram=8GB",
+                featuresColumn(line));
+        assertEquals(features, ProductCsv.parseFeatures(featuresColumn(line)));
+    }
+
+    @Test
+    @DisplayName("Should keep plain features unescaped and sorted by key")
+    void shouldFormatPlainFeatures() {
+        // Given
+        Map<String, String> features = Map.of("storage", "256GB", "ram", "8GB");
+
+        // When
+        String line = ProductCsv.line(product(features));
+
+        // Then
+        assertEquals("1,Phone,PX-001,phones,499.00,Flagship,ram=8GB;storage=256GB\r\n", line);
+    }
+
+    @Test
+    @DisplayName("Should reject a feature pair without '='")
+    void shouldRejectPairWithoutSeparator() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCsv.parseFeatures("ram=8GB;oops"));
+    }
+}